@@ -16,8 +16,8 @@ import org.slf4j.LoggerFactory;
 import xyz.nucleoid.plasmid.command.*;
 import xyz.nucleoid.plasmid.event.GameEvents;
 import xyz.nucleoid.plasmid.game.config.GameConfigs;
-import xyz.nucleoid.plasmid.game.event.GameActivityEvents;
 import xyz.nucleoid.plasmid.game.manager.GameSpaceManager;
+import xyz.nucleoid.plasmid.game.player.isolation.PlayerManagerAccess;
 import xyz.nucleoid.plasmid.game.world.generator.GameChunkGenerator;
 
 public final class Plasmid implements ModInitializer {
@@ -47,15 +47,16 @@ public final class Plasmid implements ModInitializer {
             }
         });
 
+        ServerTickEvents.START_SERVER_TICK.register(server -> {
+            GameSpaceManager.startServerTick();
+        });
+
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            GameSpaceManager.tickServer();
+        });
+
         ServerTickEvents.END_WORLD_TICK.register(world -> {
-            var game = GameSpaceManager.get().byWorld(world);
-            if (game != null) {
-                try {
-                    game.getBehavior().propagatingInvoker(GameActivityEvents.TICK).onTick();
-                } catch (Throwable t) {
-                    game.closeWithError("An unexpected error occurred while ticking the game");
-                }
-            }
+            GameSpaceManager.get().tickWorld(world);
         });
 
         ServerLifecycleEvents.SERVER_STARTING.register(server -> {
@@ -66,6 +67,10 @@ public final class Plasmid implements ModInitializer {
             });
         });
 
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            GameSpaceManager.get().getPool().fill();
+        });
+
         ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
             GameSpaceManager.startClosing();
             if (httpServer != null) {
@@ -75,10 +80,13 @@ public final class Plasmid implements ModInitializer {
 
         ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
             GameSpaceManager.closeServer();
+            ((PlayerManagerAccess) server.getPlayerManager()).plasmid$closePlayerDataWriter();
         });
 
         ServerLifecycleEvents.END_DATA_PACK_RELOAD.register(((server, resourceManager, success) -> {
             this.loadData(server.getRegistryManager(), resourceManager);
+            GameSpaceManager.get().getPool().reset();
+            ((PlayerManagerAccess) server.getPlayerManager()).plasmid$getJoinPacketCache().invalidate();
         }));
 
         // For games to debug their statistic collection without needing to set up a backend
@@ -7,8 +7,16 @@ import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.JsonOps;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.minecraft.util.Identifier;
 import org.apache.commons.io.IOUtils;
 import org.jetbrains.annotations.NotNull;
+import xyz.nucleoid.plasmid.game.manager.GameOpenPipeline;
+import xyz.nucleoid.plasmid.game.manager.GameSpaceHibernation;
+import xyz.nucleoid.plasmid.game.manager.GameSpaceInbox;
+import xyz.nucleoid.plasmid.game.manager.GameSpaceTickScheduler;
+import xyz.nucleoid.plasmid.game.manager.GameWorldTeardown;
+import xyz.nucleoid.plasmid.game.player.GamePlayerPool;
+import xyz.nucleoid.plasmid.game.player.isolation.JoinPacketCache;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -16,11 +24,20 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Map;
 import java.util.Optional;
 
 public record PlasmidConfig(
         Optional<String> userFacingPackAddress,
-        Optional<PlasmidWebServer.Config> webServerConfig
+        Optional<PlasmidWebServer.Config> webServerConfig,
+        Map<Identifier, Integer> gameSpacePools,
+        GameOpenPipeline.Config gameOpenPipeline,
+        GameSpaceTickScheduler.Config gameTickScheduler,
+        GameWorldTeardown.Config gameWorldTeardown,
+        GameSpaceHibernation.Config gameSpaceHibernation,
+        GameSpaceInbox.Config gameSpaceInbox,
+        GamePlayerPool.Config gamePlayerPool,
+        JoinPacketCache.Config joinPacketCache
 ) {
     private static final Path PATH = Paths.get("config/plasmid.json");
 
@@ -29,7 +46,15 @@ public record PlasmidConfig(
     private static final Codec<PlasmidConfig> CODEC = RecordCodecBuilder.create(instance ->
         instance.group(
                 Codec.STRING.optionalFieldOf("resource_pack_address").forGetter(PlasmidConfig::userFacingPackAddress),
-                PlasmidWebServer.Config.CODEC.optionalFieldOf("web_server").forGetter(PlasmidConfig::webServerConfig)
+                PlasmidWebServer.Config.CODEC.optionalFieldOf("web_server").forGetter(PlasmidConfig::webServerConfig),
+                Codec.unboundedMap(Identifier.CODEC, Codec.intRange(0, 64)).optionalFieldOf("game_space_pools", Map.of()).forGetter(PlasmidConfig::gameSpacePools),
+                GameOpenPipeline.Config.CODEC.optionalFieldOf("game_open_pipeline", GameOpenPipeline.Config.DEFAULT).forGetter(PlasmidConfig::gameOpenPipeline),
+                GameSpaceTickScheduler.Config.CODEC.optionalFieldOf("game_tick_scheduler", GameSpaceTickScheduler.Config.DEFAULT).forGetter(PlasmidConfig::gameTickScheduler),
+                GameWorldTeardown.Config.CODEC.optionalFieldOf("game_world_teardown", GameWorldTeardown.Config.DEFAULT).forGetter(PlasmidConfig::gameWorldTeardown),
+                GameSpaceHibernation.Config.CODEC.optionalFieldOf("game_space_hibernation", GameSpaceHibernation.Config.DEFAULT).forGetter(PlasmidConfig::gameSpaceHibernation),
+                GameSpaceInbox.Config.CODEC.optionalFieldOf("game_space_inbox", GameSpaceInbox.Config.DEFAULT).forGetter(PlasmidConfig::gameSpaceInbox),
+                GamePlayerPool.Config.CODEC.optionalFieldOf("game_player_pool", GamePlayerPool.Config.DEFAULT).forGetter(PlasmidConfig::gamePlayerPool),
+                JoinPacketCache.Config.CODEC.optionalFieldOf("join_packet_cache", JoinPacketCache.Config.DEFAULT).forGetter(PlasmidConfig::joinPacketCache)
         ).apply(instance, PlasmidConfig::new)
     );
 
@@ -38,7 +63,15 @@ public record PlasmidConfig(
     private PlasmidConfig() {
         this(
                 Optional.of("http://127.0.0.1:25566/" + PlasmidWebServer.RESOURCE_PACKS_ENDPOINT),
-                Optional.of(new PlasmidWebServer.Config(25566))
+                Optional.of(new PlasmidWebServer.Config(25566)),
+                Map.of(),
+                GameOpenPipeline.Config.DEFAULT,
+                GameSpaceTickScheduler.Config.DEFAULT,
+                GameWorldTeardown.Config.DEFAULT,
+                GameSpaceHibernation.Config.DEFAULT,
+                GameSpaceInbox.Config.DEFAULT,
+                GamePlayerPool.Config.DEFAULT,
+                JoinPacketCache.Config.DEFAULT
         );
     }
 
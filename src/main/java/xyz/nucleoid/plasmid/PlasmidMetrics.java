@@ -0,0 +1,405 @@
+package xyz.nucleoid.plasmid;
+
+import net.minecraft.util.Identifier;
+import xyz.nucleoid.plasmid.game.GameCloseReason;
+import xyz.nucleoid.plasmid.game.manager.GameSpaceManager;
+import xyz.nucleoid.plasmid.util.Scheduler;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects server metrics and renders them in the Prometheus text exposition format for the web server.
+ * <p>
+ * Counters and histograms are written from the server thread and read from the web server threads without locking.
+ * Gauges that need to look at game state are sampled on the server thread into an immutable snapshot, so rendering
+ * never touches game spaces directly.
+ *
+ * @see PlasmidWebServer#METRICS_ENDPOINT
+ */
+public final class PlasmidMetrics {
+    public static final PlasmidMetrics INSTANCE = new PlasmidMetrics();
+
+    private static final int SAMPLE_INTERVAL = 20;
+    private static final double[] LATENCY_BUCKETS = { 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0 };
+
+    private final Map<Identifier, LongAdder> opensByType = new ConcurrentHashMap<>();
+    private final LongAdder openFailures = new LongAdder();
+    private final LongAdder[] closesByReason = new LongAdder[GameCloseReason.values().length];
+
+    private final Histogram openLatency = new Histogram(LATENCY_BUCKETS);
+    private final Histogram joinLatency = new Histogram(LATENCY_BUCKETS);
+    private final LongAdder joinAllocatedBytes = new LongAdder();
+    private final LongAdder joinsMeasured = new LongAdder();
+
+    private final LongAdder gamePlayersCreated = new LongAdder();
+    private final LongAdder gamePlayersReused = new LongAdder();
+
+    private final LongAdder tabListSyncs = new LongAdder();
+    private final LongAdder tabListEntriesKept = new LongAdder();
+    private final LongAdder tabListBytesSaved = new LongAdder();
+
+    private final LongAdder packRequests = new LongAdder();
+    private final LongAdder packBytesServed = new LongAdder();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private PlasmidMetrics() {
+        for (int i = 0; i < this.closesByReason.length; i++) {
+            this.closesByReason[i] = new LongAdder();
+        }
+    }
+
+    public void onGameOpened(Identifier type) {
+        this.opensByType.computeIfAbsent(type, t -> new LongAdder()).increment();
+    }
+
+    public void onGameOpenFailed() {
+        this.openFailures.increment();
+    }
+
+    public void onGameClosed(GameCloseReason reason) {
+        this.closesByReason[reason.ordinal()].increment();
+    }
+
+    public void recordOpenLatency(long nanos) {
+        this.openLatency.record(nanos);
+    }
+
+    public void recordJoinLatency(long nanos) {
+        this.joinLatency.record(nanos);
+    }
+
+    /**
+     * Records the bytes allocated by the server thread while joining players to a game space.
+     *
+     * @param bytes the number of bytes allocated, or a negative value if this could not be measured
+     */
+    public void recordJoinAllocation(long bytes) {
+        if (bytes >= 0) {
+            this.joinAllocatedBytes.add(bytes);
+            this.joinsMeasured.increment();
+        }
+    }
+
+    public void onGamePlayerAcquired(boolean reused) {
+        (reused ? this.gamePlayersReused : this.gamePlayersCreated).increment();
+    }
+
+    public void onTabListSync() {
+        this.tabListSyncs.increment();
+    }
+
+    /**
+     * Records player list entries that did not need to be removed and sent again when players moved between game
+     * spaces.
+     *
+     * @param entries the number of entries that were kept
+     * @param estimatedBytes the estimated number of bytes that resending them would have taken
+     */
+    public void onTabListEntriesKept(int entries, long estimatedBytes) {
+        this.tabListEntriesKept.add(entries);
+        this.tabListBytesSaved.add(estimatedBytes);
+    }
+
+    /**
+     * @return the total number of bytes allocated so far by the current thread, or {@code -1} if the JVM does not
+     * support measuring this
+     */
+    public static long getThreadAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    public void onPackServed(long bytes) {
+        this.packRequests.increment();
+        this.packBytesServed.add(bytes);
+    }
+
+    /**
+     * Samples gauges from the given game space manager. This must be called on the server thread.
+     *
+     * @param manager the game space manager to sample
+     */
+    public void tick(GameSpaceManager manager) {
+        if (manager.getServer().getTicks() % SAMPLE_INTERVAL == 0) {
+            this.snapshot = Snapshot.sample(manager);
+        }
+    }
+
+    public String render() {
+        var output = new StringBuilder(4096);
+        var snapshot = this.snapshot;
+
+        header(output, "plasmid_game_spaces", "gauge", "Number of open game spaces by game type");
+        for (var entry : snapshot.spacesByType.entrySet()) {
+            sample(output, "plasmid_game_spaces", "type", entry.getKey().toString(), entry.getValue());
+        }
+
+        header(output, "plasmid_game_spaces_hibernating", "gauge", "Number of open game spaces that are hibernating");
+        sample(output, "plasmid_game_spaces_hibernating", snapshot.hibernatingSpaces);
+
+        header(output, "plasmid_game_space_players", "gauge", "Number of players in each game space");
+        for (var space : snapshot.spaces) {
+            sample(output, "plasmid_game_space_players", "space", space.userId, space.players);
+        }
+
+        header(output, "plasmid_game_space_tick_seconds_total", "counter", "Time spent in the tick event of each game space");
+        for (var space : snapshot.spaces) {
+            sample(output, "plasmid_game_space_tick_seconds_total", "space", space.userId, nanosToSeconds(space.totalTickNanos));
+        }
+
+        header(output, "plasmid_game_space_last_tick_seconds", "gauge", "Duration of the last tick event of each game space");
+        for (var space : snapshot.spaces) {
+            sample(output, "plasmid_game_space_last_tick_seconds", "space", space.userId, nanosToSeconds(space.lastTickNanos));
+        }
+
+        header(output, "plasmid_game_space_scheduled_tasks", "gauge", "Tasks waiting in the schedulers of each game space");
+        for (var space : snapshot.spaces) {
+            sample(output, "plasmid_game_space_scheduled_tasks", "space", space.userId, space.scheduledTasks);
+        }
+
+        header(output, "plasmid_game_space_scheduler_seconds_total", "counter", "Time spent running scheduled tasks of each game space");
+        for (var space : snapshot.spaces) {
+            sample(output, "plasmid_game_space_scheduler_seconds_total", "space", space.userId, nanosToSeconds(space.schedulerNanos));
+        }
+
+        header(output, "plasmid_game_space_inbox_commands", "gauge", "Commands posted to each game space that are waiting to run");
+        for (var space : snapshot.spaces) {
+            sample(output, "plasmid_game_space_inbox_commands", "space", space.userId, space.inboxCommands);
+        }
+
+        header(output, "plasmid_game_space_skipped_ticks_total", "counter", "Game space ticks skipped for being over the tick budget");
+        sample(output, "plasmid_game_space_skipped_ticks_total", snapshot.skippedTicks);
+
+        header(output, "plasmid_game_opens_total", "counter", "Game spaces opened by game type");
+        for (var entry : this.opensByType.entrySet()) {
+            sample(output, "plasmid_game_opens_total", "type", entry.getKey().toString(), entry.getValue().sum());
+        }
+
+        header(output, "plasmid_game_open_failures_total", "counter", "Game space open requests that failed");
+        sample(output, "plasmid_game_open_failures_total", this.openFailures.sum());
+
+        header(output, "plasmid_game_closes_total", "counter", "Game spaces closed by close reason");
+        for (var reason : GameCloseReason.values()) {
+            var name = reason.name().toLowerCase(Locale.ROOT);
+            sample(output, "plasmid_game_closes_total", "reason", name, this.closesByReason[reason.ordinal()].sum());
+        }
+
+        this.openLatency.render(output, "plasmid_game_open_latency_seconds", "Time from a game open request until the game space is open");
+        this.joinLatency.render(output, "plasmid_game_join_latency_seconds", "Time taken to screen and offer players joining a game space");
+
+        header(output, "plasmid_game_join_allocated_bytes_total", "counter", "Bytes allocated by the server thread while joining players to game spaces");
+        sample(output, "plasmid_game_join_allocated_bytes_total", this.joinAllocatedBytes.sum());
+
+        header(output, "plasmid_game_join_allocation_samples_total", "counter", "Game space joins for which allocated bytes were measured");
+        sample(output, "plasmid_game_join_allocation_samples_total", this.joinsMeasured.sum());
+
+        header(output, "plasmid_game_player_entities_total", "counter", "Player entities used to join game spaces by whether they were created or reused");
+        sample(output, "plasmid_game_player_entities_total", "source", "created", this.gamePlayersCreated.sum());
+        sample(output, "plasmid_game_player_entities_total", "source", "reused", this.gamePlayersReused.sum());
+
+        header(output, "plasmid_tab_list_syncs_total", "counter", "Player list syncs for players moved between game spaces");
+        sample(output, "plasmid_tab_list_syncs_total", this.tabListSyncs.sum());
+
+        header(output, "plasmid_tab_list_entries_kept_total", "counter", "Player list entries kept rather than resent when players moved between game spaces");
+        sample(output, "plasmid_tab_list_entries_kept_total", this.tabListEntriesKept.sum());
+
+        header(output, "plasmid_tab_list_saved_bytes_total", "counter", "Estimated bytes saved by keeping player list entries rather than resending them");
+        sample(output, "plasmid_tab_list_saved_bytes_total", this.tabListBytesSaved.sum());
+
+        header(output, "plasmid_game_open_queue_depth", "gauge", "Game space open requests that have not yet been committed");
+        sample(output, "plasmid_game_open_queue_depth", snapshot.pendingOpens);
+
+        header(output, "plasmid_game_world_teardown_queue_depth", "gauge", "Game space worlds waiting to be unloaded and deleted");
+        sample(output, "plasmid_game_world_teardown_queue_depth", snapshot.pendingWorldTeardowns);
+
+        header(output, "plasmid_scheduler_queue_depth", "gauge", "Tasks waiting in the server scheduler");
+        sample(output, "plasmid_scheduler_queue_depth", snapshot.scheduledTasks);
+
+        header(output, "plasmid_scheduler_run_seconds_total", "counter", "Time spent running scheduled tasks");
+        sample(output, "plasmid_scheduler_run_seconds_total", nanosToSeconds(snapshot.schedulerRunNanos));
+
+        header(output, "plasmid_scheduler_lateness_ticks_total", "counter", "Ticks by which scheduled tasks ran later than requested");
+        sample(output, "plasmid_scheduler_lateness_ticks_total", snapshot.schedulerLatenessTicks);
+
+        header(output, "plasmid_game_space_pool_hits_total", "counter", "Game opens served from the warm pool");
+        sample(output, "plasmid_game_space_pool_hits_total", snapshot.poolHits);
+
+        header(output, "plasmid_game_space_pool_misses_total", "counter", "Game opens that could not be served from the warm pool");
+        sample(output, "plasmid_game_space_pool_misses_total", snapshot.poolMisses);
+
+        header(output, "plasmid_resource_pack_requests_total", "counter", "Resource packs served by the web server");
+        sample(output, "plasmid_resource_pack_requests_total", this.packRequests.sum());
+
+        header(output, "plasmid_resource_pack_bytes_total", "counter", "Resource pack bytes served by the web server");
+        sample(output, "plasmid_resource_pack_bytes_total", this.packBytesServed.sum());
+
+        return output.toString();
+    }
+
+    private static void header(StringBuilder output, String name, String type, String help) {
+        output.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        output.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder output, String name, double value) {
+        output.append(name).append(' ');
+        appendValue(output, value);
+    }
+
+    private static void sample(StringBuilder output, String name, String label, String labelValue, double value) {
+        output.append(name).append('{').append(label).append("=\"");
+        appendLabelValue(output, labelValue);
+        output.append("\"} ");
+        appendValue(output, value);
+    }
+
+    private static void appendValue(StringBuilder output, double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            output.append((long) value);
+        } else {
+            output.append(value);
+        }
+        output.append('\n');
+    }
+
+    private static void appendLabelValue(StringBuilder output, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> output.append("\\\\");
+                case '"' -> output.append("\\\"");
+                case '\n' -> output.append("\\n");
+                default -> output.append(c);
+            }
+        }
+    }
+
+    private static double nanosToSeconds(long nanos) {
+        return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static final class Histogram {
+        private final double[] bounds;
+        private final long[] boundNanos;
+        private final AtomicLongArray buckets;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sumNanos = new LongAdder();
+
+        Histogram(double[] bounds) {
+            this.bounds = bounds;
+            this.boundNanos = new long[bounds.length];
+            for (int i = 0; i < bounds.length; i++) {
+                this.boundNanos[i] = (long) (bounds[i] * TimeUnit.SECONDS.toNanos(1));
+            }
+            this.buckets = new AtomicLongArray(bounds.length);
+        }
+
+        void record(long nanos) {
+            for (int i = 0; i < this.boundNanos.length; i++) {
+                if (nanos <= this.boundNanos[i]) {
+                    this.buckets.incrementAndGet(i);
+                    break;
+                }
+            }
+            this.sumNanos.add(nanos);
+            this.count.increment();
+        }
+
+        void render(StringBuilder output, String name, String help) {
+            header(output, name, "histogram", help);
+
+            long cumulative = 0;
+            for (int i = 0; i < this.bounds.length; i++) {
+                cumulative += this.buckets.get(i);
+                sample(output, name + "_bucket", "le", Double.toString(this.bounds[i]), cumulative);
+            }
+
+            long count = this.count.sum();
+            sample(output, name + "_bucket", "le", "+Inf", Math.max(count, cumulative));
+            sample(output, name + "_sum", nanosToSeconds(this.sumNanos.sum()));
+            sample(output, name + "_count", Math.max(count, cumulative));
+        }
+    }
+
+    private record SpaceSample(
+            String userId,
+            int players,
+            long totalTickNanos,
+            long lastTickNanos,
+            int scheduledTasks,
+            long schedulerNanos,
+            int inboxCommands
+    ) {
+    }
+
+    private record Snapshot(
+            Map<Identifier, Integer> spacesByType,
+            List<SpaceSample> spaces,
+            int hibernatingSpaces,
+            int pendingOpens,
+            int pendingWorldTeardowns,
+            int scheduledTasks,
+            long schedulerRunNanos,
+            long schedulerLatenessTicks,
+            long skippedTicks,
+            long poolHits,
+            long poolMisses
+    ) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), List.of(), 0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+        static Snapshot sample(GameSpaceManager manager) {
+            var gameSpaces = manager.getOpenGameSpaces();
+
+            var spacesByType = new HashMap<Identifier, Integer>();
+            var spaces = new ArrayList<SpaceSample>(gameSpaces.size());
+            int hibernatingSpaces = 0;
+            for (var gameSpace : gameSpaces) {
+                var metadata = gameSpace.getMetadata();
+                spacesByType.merge(metadata.sourceConfig().type().id(), 1, Integer::sum);
+
+                if (gameSpace.isHibernating()) {
+                    hibernatingSpaces++;
+                }
+
+                var tickStats = gameSpace.getTickStats();
+                spaces.add(new SpaceSample(
+                        metadata.userId().toString(),
+                        gameSpace.getPlayers().size(),
+                        tickStats.getTotalNanos(),
+                        tickStats.getLastNanos(),
+                        gameSpace.getScheduledTaskCount(),
+                        gameSpace.getSchedulerNanos(),
+                        gameSpace.getInboxSize()
+                ));
+            }
+
+            var pool = manager.getPool();
+            return new Snapshot(
+                    Map.copyOf(spacesByType),
+                    List.copyOf(spaces),
+                    hibernatingSpaces,
+                    manager.getPendingOpenCount(),
+                    manager.getWorldTeardown().getPendingCount(),
+                    Scheduler.INSTANCE.getQueuedTaskCount(),
+                    Scheduler.INSTANCE.getTotalRunNanos(),
+                    Scheduler.INSTANCE.getTotalLatenessTicks(),
+                    manager.getTickScheduler().getSkippedTicks(),
+                    pool.getHits(),
+                    pool.getMisses()
+            );
+        }
+    }
+}
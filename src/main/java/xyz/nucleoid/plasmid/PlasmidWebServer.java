@@ -14,10 +14,12 @@ import xyz.nucleoid.plasmid.game.resource_packs.GameResourcePackManager;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.Executors;
 
 public class PlasmidWebServer {
     public static final String RESOURCE_PACKS_ENDPOINT = "resource-packs";
+    public static final String METRICS_ENDPOINT = "metrics";
 
     @Nullable
     public static HttpServer start(MinecraftServer minecraftServer, Config config) {
@@ -25,6 +27,7 @@ public class PlasmidWebServer {
             var address = createBindAddress(minecraftServer, config);
             var server = HttpServer.create(address, 0);
             server.createContext("/" + RESOURCE_PACKS_ENDPOINT, new ResourcePacksHandler(RESOURCE_PACKS_ENDPOINT));
+            server.createContext("/" + METRICS_ENDPOINT, new MetricsHandler());
             server.setExecutor(Executors.newFixedThreadPool(2));
             server.start();
 
@@ -76,9 +79,11 @@ public class PlasmidWebServer {
                     exchange.getResponseHeaders().add("Content-Type", "application/zip");
                     exchange.sendResponseHeaders(HttpStatus.SC_OK, pack.getSize());
 
-                    input.transferTo(output);
+                    long bytes = input.transferTo(output);
                     output.flush();
 
+                    PlasmidMetrics.INSTANCE.onPackServed(bytes);
+
                     return true;
                 }
             }
@@ -87,6 +92,28 @@ public class PlasmidWebServer {
         }
     }
 
+    private record MetricsHandler() implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try (exchange) {
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    exchange.sendResponseHeaders(HttpStatus.SC_METHOD_NOT_ALLOWED, -1);
+                    return;
+                }
+
+                var body = PlasmidMetrics.INSTANCE.render().getBytes(StandardCharsets.UTF_8);
+
+                exchange.getResponseHeaders().add("Server", "plasmid");
+                exchange.getResponseHeaders().add("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                exchange.sendResponseHeaders(HttpStatus.SC_OK, body.length);
+
+                try (var output = exchange.getResponseBody()) {
+                    output.write(body);
+                }
+            }
+        }
+    }
+
     public record Config(int port) {
         public static final Codec<Config> CODEC = RecordCodecBuilder.create(instance ->
                 instance.group(
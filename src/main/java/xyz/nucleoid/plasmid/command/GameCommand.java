@@ -26,7 +26,9 @@ import xyz.nucleoid.plasmid.game.GameSpace;
 import xyz.nucleoid.plasmid.game.GameTexts;
 import xyz.nucleoid.plasmid.game.config.GameConfig;
 import xyz.nucleoid.plasmid.game.config.GameConfigs;
+import xyz.nucleoid.plasmid.game.event.GameEventProfiler;
 import xyz.nucleoid.plasmid.game.manager.GameSpaceManager;
+import xyz.nucleoid.plasmid.game.manager.ManagedGameSpace;
 import xyz.nucleoid.plasmid.game.player.GamePlayerJoiner;
 import xyz.nucleoid.plasmid.util.Scheduler;
 
@@ -49,6 +51,12 @@ public final class GameCommand {
 
     public static final DynamicCommandExceptionType PLAYER_NOT_IN_GAME = new DynamicCommandExceptionType(player -> Text.translatable("text.plasmid.game.locate.player_not_in_game", player));
 
+    public static final SimpleCommandExceptionType NOT_PROFILING = new SimpleCommandExceptionType(
+            Text.translatable("text.plasmid.game.profile.not_profiling")
+    );
+
+    private static final int PROFILE_REPORT_ENTRIES = 20;
+
     // @formatter:off
     public static void register(CommandDispatcher<ServerCommandSource> dispatcher) {
         dispatcher.register(
@@ -104,6 +112,14 @@ public final class GameCommand {
                         .then(argument("player", EntityArgumentType.player())
                         .executes(GameCommand::locatePlayer))
                 )
+                .then(literal("profile")
+                    .requires(source -> source.hasPermissionLevel(2))
+                    .then(GameSpaceArgument.argument("game_space")
+                        .executes(GameCommand::reportProfile)
+                        .then(literal("start").executes(GameCommand::startProfiling))
+                        .then(literal("stop").executes(GameCommand::stopProfiling))
+                    )
+                )
                 .then(literal("leave").executes(GameCommand::leaveGame))
                 .then(literal("list").executes(GameCommand::listGames))
         );
@@ -277,16 +293,9 @@ public final class GameCommand {
                 .filter(player -> !GameSpaceManager.get().inGame(player))
                 .collect(Collectors.toList());
 
-        var screen = gameSpace.getPlayers().screenJoins(players);
-        if (screen.isOk()) {
-            for (var player : players) {
-                var context = GamePlayerJoiner.getContext(player, gameSpace);
-                if(context == null)
-                    continue;
-                gameSpace.getPlayers().offer(context);
-            }
-        } else {
-            source.sendError(screen.errorCopy().formatted(Formatting.RED));
+        var results = GamePlayerJoiner.tryJoinAll(players, gameSpace, false);
+        if (results.globalError != null) {
+            source.sendError(results.globalError.copy().formatted(Formatting.RED));
         }
     }
 
@@ -420,6 +429,57 @@ public final class GameCommand {
         return Command.SINGLE_SUCCESS;
     }
 
+    private static int startProfiling(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        var gameSpace = getManagedGameSpace(context);
+        gameSpace.startProfiling();
+
+        context.getSource().sendFeedback(() -> GameTexts.Command.profileStarted(gameSpace), false);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int stopProfiling(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        var gameSpace = getManagedGameSpace(context);
+        var profiler = gameSpace.stopProfiling();
+        if (profiler == null) {
+            throw NOT_PROFILING.create();
+        }
+
+        var source = context.getSource();
+        source.sendFeedback(() -> GameTexts.Command.profileStopped(gameSpace), false);
+        reportProfile(source, profiler);
+
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int reportProfile(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        var gameSpace = getManagedGameSpace(context);
+        var profiler = gameSpace.getProfiler();
+        if (profiler == null) {
+            throw NOT_PROFILING.create();
+        }
+
+        reportProfile(context.getSource(), profiler);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static void reportProfile(ServerCommandSource source, GameEventProfiler profiler) {
+        source.sendFeedback(() -> GameTexts.Command.profileHeader(profiler.getOverheadNanos()).formatted(Formatting.BOLD), false);
+
+        profiler.getEntries().stream()
+                .sorted(Comparator.comparingLong(GameEventProfiler.Entry::getTotalNanos).reversed())
+                .limit(PROFILE_REPORT_ENTRIES)
+                .forEach(entry -> source.sendFeedback(() -> GameTexts.Command.profileEntry(entry), false));
+    }
+
+    private static ManagedGameSpace getManagedGameSpace(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        var gameSpace = GameSpaceArgument.get(context, "game_space");
+        var managedGameSpace = GameSpaceManager.get().byId(gameSpace.getMetadata().id());
+        if (managedGameSpace == null) {
+            throw NO_GAME_OPEN.create();
+        }
+        return managedGameSpace;
+    }
+
     private static int kickPlayers(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
         var source = context.getSource();
         var playerManager = source.getServer().getPlayerManager();
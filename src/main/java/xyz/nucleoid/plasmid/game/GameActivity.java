@@ -2,8 +2,11 @@ package xyz.nucleoid.plasmid.game;
 
 import net.minecraft.util.ActionResult;
 import xyz.nucleoid.plasmid.game.rule.GameRuleType;
+import xyz.nucleoid.plasmid.util.Scheduler;
 import xyz.nucleoid.stimuli.event.StimulusEvent;
 
+import java.util.function.Consumer;
+
 public interface GameActivity extends GameBehavior {
     /**
      * @return the parent {@link GameSpace} that this activity acts upon
@@ -65,4 +68,35 @@ public interface GameActivity extends GameBehavior {
      * @return this {@link GameActivity}
      */
     GameActivity addResource(AutoCloseable resource);
+
+    /**
+     * Sets the priority with which this {@link GameActivity} is ticked while the server is over its tick budget.
+     * Activities default to {@link GameTickPriority#NORMAL}.
+     *
+     * @param priority the tick priority for this activity
+     * @return this {@link GameActivity}
+     * @see GameTickPriority
+     */
+    GameActivity setTickPriority(GameTickPriority priority);
+
+    /**
+     * Returns a scheduler for running tasks on the server thread that belong to this {@link GameActivity}.
+     * All of its tasks are cancelled when this {@link GameActivity} is destroyed.
+     *
+     * @return the scheduler for this {@link GameActivity}
+     * @see GameSpace#getScheduler()
+     */
+    Scheduler getScheduler();
+
+    /**
+     * Starts a {@link GameScript} on the scheduler of this {@link GameActivity}, declared by the given function.
+     * The script is cancelled when this {@link GameActivity} is destroyed.
+     *
+     * @param script a function that declares the steps of the script
+     * @return a handle that can be used to cancel the script
+     * @see GameScript
+     */
+    default GameScript.Handle script(Consumer<GameScript.Builder> script) {
+        return GameScript.build(script).start(this.getScheduler());
+    }
 }
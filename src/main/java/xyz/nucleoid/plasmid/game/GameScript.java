@@ -0,0 +1,301 @@
+package xyz.nucleoid.plasmid.game;
+
+import com.google.common.base.Preconditions;
+import xyz.nucleoid.plasmid.Plasmid;
+import xyz.nucleoid.plasmid.util.Scheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * A sequence of actions and waits that is run on the server thread, such as a countdown, the phases of a round or a
+ * series of waves.
+ * <p>
+ * Scripts are declared up front through a {@link Builder} and then run by a {@link Scheduler}: every action runs at a
+ * tick boundary, and a script that is waiting only holds a single task within the scheduler until it is resumed.
+ * <pre>{@code
+ * activity.script(script -> {
+ *     script.repeat(3, countdown -> countdown
+ *             .run(() -> players.sendMessage(Text.literal("Get ready...")))
+ *             .waitTicks(20)
+ *     );
+ *     script.run(this::startRound);
+ *     script.waitUntil(this::isRoundOver);
+ *     script.run(this::endRound);
+ * });
+ * }</pre>
+ *
+ * @see GameActivity#script(Consumer)
+ */
+public final class GameScript {
+    private final List<Step> steps;
+
+    private GameScript(List<Step> steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * Builds a new {@link GameScript} from the steps declared by the given function.
+     *
+     * @param builder a function that declares the steps of this script
+     * @return the built {@link GameScript}
+     */
+    public static GameScript build(Consumer<Builder> builder) {
+        var steps = new Builder();
+        builder.accept(steps);
+        return steps.build();
+    }
+
+    /**
+     * Starts running this script on the given {@link Scheduler}. The first step runs at the end of the current tick.
+     * <p>
+     * The script stops if any of its steps throws an exception, or if the scheduler is closed.
+     *
+     * @param scheduler the scheduler to run this script on
+     * @return a handle that can be used to cancel this script
+     */
+    public Handle start(Scheduler scheduler) {
+        var runner = new Runner(scheduler, this.steps);
+        runner.schedule(0);
+        return runner;
+    }
+
+    /**
+     * A handle to a running {@link GameScript}.
+     */
+    public interface Handle {
+        /**
+         * Cancels this script, preventing any of its remaining steps from running.
+         */
+        void cancel();
+
+        /**
+         * @return whether this script still has steps left to run and has not been cancelled
+         */
+        boolean isRunning();
+    }
+
+    public static final class Builder {
+        private final List<Step> steps = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Runs the given action.
+         *
+         * @param action the action to run
+         * @return this {@link Builder}
+         */
+        public Builder run(Runnable action) {
+            this.steps.add(new Run(action));
+            return this;
+        }
+
+        /**
+         * Waits for the given number of ticks before continuing with the next step.
+         *
+         * @param ticks the number of ticks to wait for
+         * @return this {@link Builder}
+         */
+        public Builder waitTicks(int ticks) {
+            Preconditions.checkArgument(ticks >= 0, "ticks must not be negative");
+            this.steps.add(new Wait(ticks));
+            return this;
+        }
+
+        /**
+         * Waits until the given condition is met before continuing with the next step.
+         * The condition is tested immediately and then once every tick.
+         *
+         * @param condition the condition to wait for
+         * @return this {@link Builder}
+         * @see Builder#waitUntil(BooleanSupplier, int)
+         */
+        public Builder waitUntil(BooleanSupplier condition) {
+            return this.waitUntil(condition, 1);
+        }
+
+        /**
+         * Waits until the given condition is met before continuing with the next step.
+         * The condition is tested immediately and then once every {@code interval} ticks.
+         *
+         * @param condition the condition to wait for
+         * @param interval the number of ticks between each test of the condition
+         * @return this {@link Builder}
+         */
+        public Builder waitUntil(BooleanSupplier condition, int interval) {
+            Preconditions.checkArgument(interval > 0, "interval must be positive");
+            this.steps.add(new WaitUntil(condition, interval));
+            return this;
+        }
+
+        /**
+         * Runs the steps declared by the given function the given number of times.
+         *
+         * @param times the number of times to run the steps
+         * @param body a function that declares the steps to repeat
+         * @return this {@link Builder}
+         */
+        public Builder repeat(int times, Consumer<Builder> body) {
+            Preconditions.checkArgument(times >= 0, "times must not be negative");
+            this.steps.add(new Repeat(GameScript.build(body).steps, times, null));
+            return this;
+        }
+
+        /**
+         * Runs the steps declared by the given function for as long as the given condition is met.
+         * The condition is tested before every repetition.
+         * <p>
+         * If an iteration of the repeated steps does not wait, the next test of the condition is delayed until the next
+         * tick, so that a condition which is never met cannot hold up the server.
+         *
+         * @param condition whether the steps should be run again
+         * @param body a function that declares the steps to repeat
+         * @return this {@link Builder}
+         */
+        public Builder repeatWhile(BooleanSupplier condition, Consumer<Builder> body) {
+            this.steps.add(new Repeat(GameScript.build(body).steps, 0, condition));
+            return this;
+        }
+
+        GameScript build() {
+            return new GameScript(List.copyOf(this.steps));
+        }
+    }
+
+    private interface Step {
+    }
+
+    private record Run(Runnable action) implements Step {
+    }
+
+    private record Wait(int ticks) implements Step {
+    }
+
+    private record WaitUntil(BooleanSupplier condition, int interval) implements Step {
+    }
+
+    private record Repeat(List<Step> steps, int times, BooleanSupplier condition) implements Step {
+        boolean shouldRun(int iteration) {
+            return this.condition != null ? this.condition.getAsBoolean() : iteration < this.times;
+        }
+    }
+
+    private static final class Frame {
+        final List<Step> steps;
+        final Repeat repeat;
+
+        int index;
+        int iteration;
+        int yields;
+
+        Frame(List<Step> steps, Repeat repeat, int yields) {
+            this.steps = steps;
+            this.repeat = repeat;
+            this.yields = yields;
+        }
+    }
+
+    private static final class Runner implements Handle {
+        private final Scheduler scheduler;
+        private final ArrayDeque<Frame> stack = new ArrayDeque<>();
+
+        private Scheduler.Handle pending;
+        private boolean finished;
+        private int yields;
+
+        Runner(Scheduler scheduler, List<Step> steps) {
+            this.scheduler = scheduler;
+            this.stack.push(new Frame(steps, null, 0));
+        }
+
+        void schedule(int delay) {
+            this.yields++;
+            this.pending = this.scheduler.schedule(server -> this.resume(), delay);
+        }
+
+        private void resume() {
+            this.pending = null;
+            try {
+                this.advance();
+            } catch (Throwable throwable) {
+                Plasmid.LOGGER.error("An unexpected exception occurred while running a game script", throwable);
+                this.cancel();
+            }
+        }
+
+        private void advance() {
+            while (!this.finished) {
+                var frame = this.stack.peek();
+                if (frame == null) {
+                    this.finished = true;
+                    return;
+                }
+
+                if (frame.index >= frame.steps.size()) {
+                    var repeat = frame.repeat;
+                    if (repeat != null && repeat.condition() != null && frame.yields == this.yields) {
+                        // this iteration did not wait, and would otherwise be repeated forever within this tick
+                        this.schedule(1);
+                        return;
+                    }
+
+                    this.stack.pop();
+                    if (repeat != null && repeat.shouldRun(frame.iteration + 1)) {
+                        frame.index = 0;
+                        frame.iteration++;
+                        frame.yields = this.yields;
+                        this.stack.push(frame);
+                    }
+                    continue;
+                }
+
+                var step = frame.steps.get(frame.index++);
+                if (step instanceof Run run) {
+                    run.action().run();
+                } else if (step instanceof Wait wait) {
+                    if (wait.ticks() > 0) {
+                        this.schedule(wait.ticks());
+                        return;
+                    }
+                } else if (step instanceof WaitUntil waitUntil) {
+                    if (!waitUntil.condition().getAsBoolean()) {
+                        frame.index--;
+                        this.schedule(waitUntil.interval());
+                        return;
+                    }
+                } else if (step instanceof Repeat repeat) {
+                    if (repeat.shouldRun(0)) {
+                        this.stack.push(new Frame(repeat.steps(), repeat, this.yields));
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            this.finished = true;
+            this.stack.clear();
+
+            var pending = this.pending;
+            if (pending != null) {
+                pending.cancel();
+                this.pending = null;
+            }
+        }
+
+        @Override
+        public boolean isRunning() {
+            if (this.finished) {
+                return false;
+            }
+            // the scheduler cancels our pending resume when it is closed
+            var pending = this.pending;
+            return pending == null || !pending.isCancelled();
+        }
+    }
+}
@@ -10,6 +10,7 @@ import xyz.nucleoid.plasmid.game.event.GamePlayerEvents;
 import xyz.nucleoid.plasmid.game.player.PlayerSet;
 import xyz.nucleoid.plasmid.game.resource_packs.ResourcePackStates;
 import xyz.nucleoid.plasmid.game.world.GameSpaceWorlds;
+import xyz.nucleoid.plasmid.util.Scheduler;
 
 import java.util.function.Consumer;
 
@@ -113,6 +114,26 @@ public interface GameSpace {
 
     ResourcePackStates getResourcePackStates();
 
+    /**
+     * Returns a scheduler for running tasks on the server thread that belong to this {@link GameSpace}.
+     * All of its tasks are cancelled when this {@link GameSpace} closes.
+     *
+     * @return the scheduler for this {@link GameSpace}
+     * @see GameActivity#getScheduler()
+     */
+    Scheduler getScheduler();
+
+    /**
+     * Posts a command to be run on the server thread while this {@link GameSpace} ticks. This may be called from any
+     * thread: commands are run in the order that they were posted, a limited number per tick.
+     * <p>
+     * Commands are dropped if this {@link GameSpace} closes before they run.
+     *
+     * @param command the command to run
+     * @return {@code false} if this {@link GameSpace} is closed and the command was dropped
+     */
+    boolean post(Runnable command);
+
 
     @Nullable
     <T> T getAttachment(String key);
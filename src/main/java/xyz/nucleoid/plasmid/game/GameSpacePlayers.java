@@ -4,6 +4,7 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import xyz.nucleoid.plasmid.game.event.GamePlayerEvents;
 import xyz.nucleoid.plasmid.game.player.PlayerOps;
 import xyz.nucleoid.plasmid.game.player.PlayerSet;
+import xyz.nucleoid.plasmid.game.player.PlayerSlotAllocator;
 
 import java.util.Collection;
 import java.util.function.BiConsumer;
@@ -51,6 +52,20 @@ public interface GameSpacePlayers extends PlayerSet {
      */
     boolean kick(ServerPlayerEntity player);
 
+    /**
+     * Returns the slots assigned to the players in this {@link GameSpace}, which can be used to create bitset player
+     * sets and primitive per-player arrays that are cleared automatically as players leave.
+     * <p>
+     * Implementations that do not assign slots to their players throw by default.
+     *
+     * @return the slot allocator for the players in this {@link GameSpace}
+     * @throws UnsupportedOperationException if this implementation does not assign slots
+     * @see PlayerSlotAllocator#createSet()
+     */
+    default PlayerSlotAllocator getSlots() {
+        throw new UnsupportedOperationException(this.getClass().getName() + " does not assign player slots");
+    }
+
 
     /**
      * Represents a context for a player trying to join a {@link GameSpace}.
@@ -4,6 +4,7 @@ import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.*;
 import net.minecraft.util.Formatting;
+import xyz.nucleoid.plasmid.game.event.GameEventProfiler;
 
 /**
  * Utility class containing various functions that supply {@link Text} instances.
@@ -55,6 +56,10 @@ public final class GameTexts {
         public static MutableText gameOpenError() {
             return Text.translatable("text.plasmid.game.open.error");
         }
+
+        public static MutableText gameOpenQueueFull() {
+            return Text.translatable("text.plasmid.game.open.queue_full");
+        }
     }
 
     public static final class Command {
@@ -72,6 +77,28 @@ public final class GameTexts {
         public static MutableText listEntry(Text entry) {
             return Text.translatable("text.plasmid.entry", entry);
         }
+
+        public static MutableText profileStarted(GameSpace gameSpace) {
+            return Text.translatable("text.plasmid.game.profile.started", gameSpace.getMetadata().userId().toString());
+        }
+
+        public static MutableText profileStopped(GameSpace gameSpace) {
+            return Text.translatable("text.plasmid.game.profile.stopped", gameSpace.getMetadata().userId().toString());
+        }
+
+        public static MutableText profileHeader(long overheadNanos) {
+            return Text.translatable("text.plasmid.game.profile.header", overheadNanos);
+        }
+
+        public static MutableText profileEntry(GameEventProfiler.Entry entry) {
+            return Text.translatable("text.plasmid.game.profile.entry",
+                    Text.literal(entry.getListenerName()).formatted(Formatting.GRAY),
+                    entry.getInvocations(),
+                    String.format("%.2f", entry.getTotalNanos() / 1_000_000.0),
+                    String.format("%.1f", entry.getMaxNanos() / 1_000.0),
+                    entry.getExceptions()
+            );
+        }
     }
 
     public static final class Start {
@@ -0,0 +1,22 @@
+package xyz.nucleoid.plasmid.game;
+
+/**
+ * Describes how important it is for a {@link GameActivity} to receive every
+ * {@link xyz.nucleoid.plasmid.game.event.GameActivityEvents#TICK} when the server is running over its tick budget.
+ *
+ * @see GameActivity#setTickPriority(GameTickPriority)
+ */
+public enum GameTickPriority {
+    /**
+     * The activity is ticked every tick regardless of the tick budget.
+     */
+    NORMAL,
+    /**
+     * The activity may have some of its ticks skipped while the server is over its tick budget, such as for waiting
+     * lobbies. A bounded number of consecutive ticks will be skipped before it is ticked again.
+     * <p>
+     * Whole ticks are skipped, so an activity with this priority must not expect to be ticked on any particular tick:
+     * timers should compare against the game time rather than count ticks or test for exact multiples of it.
+     */
+    LOW
+}
@@ -14,6 +14,7 @@ import xyz.nucleoid.plasmid.game.GameActivity;
 import xyz.nucleoid.plasmid.game.GameResult;
 import xyz.nucleoid.plasmid.game.GameSpace;
 import xyz.nucleoid.plasmid.game.GameTexts;
+import xyz.nucleoid.plasmid.game.GameTickPriority;
 import xyz.nucleoid.plasmid.game.common.config.PlayerConfig;
 import xyz.nucleoid.plasmid.game.common.widget.BossBarWidget;
 import xyz.nucleoid.plasmid.game.common.widget.SidebarWidget;
@@ -49,6 +50,7 @@ public final class GameWaitingLobby {
 
     private static final Text PADDING_LINE = Text.literal(" ".repeat(36));
 
+    private final GameActivity activity;
     private final GameSpace gameSpace;
     private final PlayerConfig playerConfig;
 
@@ -56,13 +58,15 @@ public final class GameWaitingLobby {
     private final SidebarWidget sidebar;
     private long countdownStart = -1;
     private long countdownDuration = -1;
+    private long lastUpdateSecond = -1;
 
     private boolean startRequested;
     private boolean started;
     private List<Text> sidebarText;
 
-    private GameWaitingLobby(GameSpace gameSpace, PlayerConfig playerConfig, BossBarWidget bar, SidebarWidget sidebar) {
-        this.gameSpace = gameSpace;
+    private GameWaitingLobby(GameActivity activity, PlayerConfig playerConfig, BossBarWidget bar, SidebarWidget sidebar) {
+        this.activity = activity;
+        this.gameSpace = activity.getGameSpace();
         this.playerConfig = playerConfig;
         this.bar = bar;
         this.sidebar = sidebar;
@@ -80,10 +84,11 @@ public final class GameWaitingLobby {
         var widgets = GlobalWidgets.addTo(activity);
         var bar = widgets.addBossBar(WAITING_TITLE, WAITING_COLOR, BOSS_BAR_STYLE);
         var sidebar = widgets.addSidebar();
-        var lobby = new GameWaitingLobby(activity.getGameSpace(), playerConfig, bar, sidebar);
+        var lobby = new GameWaitingLobby(activity, playerConfig, bar, sidebar);
         activity.deny(GameRuleType.PVP).deny(GameRuleType.FALL_DAMAGE).deny(GameRuleType.HUNGER)
                 .deny(GameRuleType.CRAFTING).deny(GameRuleType.PORTALS).deny(GameRuleType.THROW_ITEMS)
                 .deny(GameRuleType.INTERACTION).deny(GameRuleType.PLACE_BLOCKS).deny(GameRuleType.BREAK_BLOCKS);
+        activity.setTickPriority(GameTickPriority.LOW);
 
         activity.listen(GameActivityEvents.TICK, lobby::onTick);
         activity.listen(GameActivityEvents.REQUEST_START, lobby::requestStart);
@@ -131,7 +136,10 @@ public final class GameWaitingLobby {
 
         long time = this.gameSpace.getTime();
 
-        if (time % 20 == 0) {
+        // ticks may be skipped while waiting, so this cannot rely on being ticked on an exact second
+        long second = time / 20;
+        if (second != this.lastUpdateSecond) {
+            this.lastUpdateSecond = second;
             this.updateCountdown();
             this.tickCountdownBar();
             this.tickSidebar();
@@ -148,6 +156,7 @@ public final class GameWaitingLobby {
                 this.started = false;
                 this.startRequested = false;
                 this.countdownStart = -1;
+                this.activity.setTickPriority(GameTickPriority.LOW);
             }
         }
     }
@@ -216,6 +225,9 @@ public final class GameWaitingLobby {
             this.countdownStart = -1;
             this.countdownDuration = -1;
         }
+
+        // the countdown should end and tick down on time
+        this.activity.setTickPriority(this.countdownStart != -1 ? GameTickPriority.NORMAL : GameTickPriority.LOW);
     }
 
     private long getTargetCountdownDuration() {
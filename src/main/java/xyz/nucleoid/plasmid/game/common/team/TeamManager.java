@@ -21,8 +21,8 @@ import org.jetbrains.annotations.Nullable;
 import xyz.nucleoid.plasmid.game.GameActivity;
 import xyz.nucleoid.plasmid.game.GameSpace;
 import xyz.nucleoid.plasmid.game.event.GamePlayerEvents;
-import xyz.nucleoid.plasmid.game.player.MutablePlayerSet;
 import xyz.nucleoid.plasmid.game.player.PlayerSet;
+import xyz.nucleoid.plasmid.game.player.SlotPlayerSet;
 import xyz.nucleoid.plasmid.mixin.chat.PlayerListS2CPacketEntryAccessor;
 import xyz.nucleoid.plasmid.util.PlayerRef;
 import xyz.nucleoid.stimuli.event.player.PlayerDamageEvent;
@@ -436,14 +436,14 @@ public final class TeamManager implements Iterable<GameTeam> {
 
     final class State {
         final Set<PlayerRef> allPlayers;
-        final MutablePlayerSet onlinePlayers;
+        final SlotPlayerSet onlinePlayers;
         final Team scoreboardTeam;
 
         GameTeam team;
 
         State(GameTeam team) {
             this.allPlayers = new ObjectOpenHashSet<>();
-            this.onlinePlayers = new MutablePlayerSet(TeamManager.this.gameSpace.getServer());
+            this.onlinePlayers = TeamManager.this.gameSpace.getPlayers().getSlots().createSet();
 
             this.scoreboardTeam = new Team(TeamManager.this.scoreboard, team.key().id());
             team.config().applyToScoreboard(this.scoreboardTeam);
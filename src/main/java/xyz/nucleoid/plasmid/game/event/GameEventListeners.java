@@ -22,6 +22,9 @@ public final class GameEventListeners implements EventRegistrar {
     private final Reference2ObjectMap<StimulusEvent<?>, List<Object>> listeners = new Reference2ObjectOpenHashMap<>();
     private final Reference2ObjectMap<StimulusEvent<?>, InvokerEntry<?>> invokers = new Reference2ObjectOpenHashMap<>();
 
+    @Nullable
+    private GameEventProfiler profiler;
+
     public GameEventListeners(GameEventExceptionHandler exceptionHandler) {
         this.exceptionHandler = exceptionHandler;
     }
@@ -43,10 +46,31 @@ public final class GameEventListeners implements EventRegistrar {
         }
     }
 
+    /**
+     * Sets a profiler to record timings of every listener with, or {@code null} to restore the plain invokers.
+     *
+     * @param profiler the profiler to record listener timings to
+     */
+    public void setProfiler(@Nullable GameEventProfiler profiler) {
+        if (this.profiler == profiler) {
+            return;
+        }
+
+        this.profiler = profiler;
+        for (var event : this.listeners.keySet()) {
+            this.updateInvoker(event);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private <T> void updateInvoker(StimulusEvent<T> event) {
         var listeners = (List<T>) this.listeners.get(event);
         if (listeners != null && !listeners.isEmpty()) {
+            var profiler = this.profiler;
+            if (profiler != null) {
+                listeners = profiler.wrapAll(event, listeners);
+            }
+
             var entry = (InvokerEntry<T>) this.invokers.get(event);
             if (entry != null) {
                 entry.listeners = listeners;
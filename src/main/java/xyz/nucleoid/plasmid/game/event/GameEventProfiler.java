@@ -0,0 +1,166 @@
+package xyz.nucleoid.plasmid.game.event;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import xyz.nucleoid.stimuli.event.StimulusEvent;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records invocation counts, timings and exceptions for individual event listeners.
+ * <p>
+ * When a profiler is set on {@link GameEventListeners}, every listener is wrapped in a generated class that calls it
+ * directly between two {@link System#nanoTime()} calls, so that the recorded timings include as little overhead as
+ * possible. That overhead is measured when the profiler is created and reported through {@link #getOverheadNanos()}.
+ * Listeners whose type cannot have a class generated for it fall back to a reflective proxy. Listeners are only wrapped
+ * while profiling is enabled, so no overhead is added to the normal invokers.
+ *
+ * @see GameEventListeners#setProfiler(GameEventProfiler)
+ */
+public final class GameEventProfiler {
+    private static final int OVERHEAD_SAMPLES = 1000;
+
+    private final Reference2ObjectMap<StimulusEvent<?>, Reference2ObjectMap<Object, Entry>> entries = new Reference2ObjectOpenHashMap<>();
+    private final long overheadNanos = measureOverhead();
+
+    <T> List<T> wrapAll(StimulusEvent<T> event, List<T> listeners) {
+        var wrapped = new ArrayList<T>(listeners.size());
+        for (var listener : listeners) {
+            wrapped.add(this.wrap(event, listener));
+        }
+        return wrapped;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T wrap(StimulusEvent<T> event, T listener) {
+        var entry = this.entries.computeIfAbsent(event, e -> new Reference2ObjectOpenHashMap<>())
+                .computeIfAbsent(listener, l -> new Entry(event, l));
+        var type = event.getListenerType();
+
+        var timed = TimedListeners.wrap(type, listener, entry);
+        if (timed != null) {
+            return timed;
+        }
+
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(listener, args);
+            }
+
+            long start = System.nanoTime();
+            try {
+                return method.invoke(listener, args);
+            } catch (InvocationTargetException e) {
+                entry.exceptions++;
+                throw e.getCause();
+            } finally {
+                entry.record(System.nanoTime() - start);
+            }
+        });
+    }
+
+    private static long measureOverhead() {
+        // the generated wrappers add two calls to System.nanoTime around each listener
+        long start = System.nanoTime();
+        for (int i = 0; i < OVERHEAD_SAMPLES; i++) {
+            System.nanoTime();
+        }
+        return (System.nanoTime() - start) / OVERHEAD_SAMPLES;
+    }
+
+    /**
+     * @return the approximate time in nanoseconds that profiling adds to each recorded listener call
+     */
+    public long getOverheadNanos() {
+        return this.overheadNanos;
+    }
+
+    /**
+     * @return the statistics for every listener that has been profiled
+     */
+    public List<Entry> getEntries() {
+        var entries = new ArrayList<Entry>();
+        for (var eventEntries : this.entries.values()) {
+            entries.addAll(eventEntries.values());
+        }
+        return entries;
+    }
+
+    public void reset() {
+        for (var eventEntries : this.entries.values()) {
+            for (var entry : eventEntries.values()) {
+                entry.reset();
+            }
+        }
+    }
+
+    public static final class Entry {
+        private final StimulusEvent<?> event;
+        private final String listenerName;
+
+        private long invocations;
+        private long totalNanos;
+        private long maxNanos;
+        private long exceptions;
+
+        Entry(StimulusEvent<?> event, Object listener) {
+            this.event = event;
+            this.listenerName = getListenerName(listener);
+        }
+
+        private static String getListenerName(Object listener) {
+            var name = listener.getClass().getName();
+            int lambdaIndex = name.indexOf("$$Lambda");
+            return lambdaIndex != -1 ? name.substring(0, lambdaIndex) : name;
+        }
+
+        void recordSince(long start) {
+            this.record(System.nanoTime() - start);
+        }
+
+        void recordFailureSince(long start) {
+            this.exceptions++;
+            this.record(System.nanoTime() - start);
+        }
+
+        void record(long nanos) {
+            this.invocations++;
+            this.totalNanos += nanos;
+            this.maxNanos = Math.max(this.maxNanos, nanos);
+        }
+
+        void reset() {
+            this.invocations = 0;
+            this.totalNanos = 0;
+            this.maxNanos = 0;
+            this.exceptions = 0;
+        }
+
+        public StimulusEvent<?> getEvent() {
+            return this.event;
+        }
+
+        public String getListenerName() {
+            return this.listenerName;
+        }
+
+        public long getInvocations() {
+            return this.invocations;
+        }
+
+        public long getTotalNanos() {
+            return this.totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return this.maxNanos;
+        }
+
+        public long getExceptions() {
+            return this.exceptions;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package xyz.nucleoid.plasmid.game.event;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import xyz.nucleoid.plasmid.Plasmid;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashSet;
+
+/**
+ * Generates a wrapper class for each listener type that implements its methods by calling the wrapped listener directly,
+ * recording the time taken to a {@link GameEventProfiler.Entry}. Unlike a {@link java.lang.reflect.Proxy}, the
+ * generated wrappers do not box arguments or call the listener reflectively, so the recorded timings only include the
+ * two {@link System#nanoTime()} calls around the listener.
+ */
+final class TimedListeners {
+    private static final String ENTRY = Type.getInternalName(GameEventProfiler.Entry.class);
+    private static final String ENTRY_DESCRIPTOR = Type.getDescriptor(GameEventProfiler.Entry.class);
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(void.class, Object.class, GameEventProfiler.Entry.class);
+
+    private static final Reference2ObjectMap<Class<?>, MethodHandle> CONSTRUCTORS = new Reference2ObjectOpenHashMap<>();
+
+    private TimedListeners() {
+    }
+
+    /**
+     * @return a wrapper around the given listener that records its timings to the given entry, or {@code null} if no
+     * wrapper class can be generated for its type
+     */
+    @Nullable
+    static synchronized <T> T wrap(Class<T> type, T listener, GameEventProfiler.Entry entry) {
+        var constructor = CONSTRUCTORS.get(type);
+        if (constructor == null && !CONSTRUCTORS.containsKey(type)) {
+            constructor = define(type);
+            CONSTRUCTORS.put(type, constructor);
+        }
+
+        if (constructor == null) {
+            return null;
+        }
+
+        try {
+            return type.cast(constructor.invoke(listener, entry));
+        } catch (Throwable throwable) {
+            Plasmid.LOGGER.warn("Failed to create timed listener for {}", type.getName(), throwable);
+            return null;
+        }
+    }
+
+    @Nullable
+    private static MethodHandle define(Class<?> type) {
+        if (!type.isInterface()) {
+            return null;
+        }
+
+        try {
+            var lookup = MethodHandles.lookup();
+            // the generated class references the listener type directly, so it must be accessible from this package
+            lookup.accessClass(type);
+            var hiddenClass = lookup.defineHiddenClass(generate(type, lookup.lookupClass()), true).lookupClass();
+            return lookup.findConstructor(hiddenClass, CONSTRUCTOR);
+        } catch (Throwable throwable) {
+            Plasmid.LOGGER.warn("Failed to generate timed listener class for {}", type.getName(), throwable);
+            return null;
+        }
+    }
+
+    private static byte[] generate(Class<?> type, Class<?> host) {
+        var name = Type.getInternalName(host) + "$Timed";
+        var typeName = Type.getInternalName(type);
+        var typeDescriptor = Type.getDescriptor(type);
+
+        var writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // only reached when merging the exception handler, which never needs more than this
+                return "java/lang/Object";
+            }
+        };
+        writer.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, name, null, "java/lang/Object", new String[] { typeName });
+        writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "listener", typeDescriptor, null, null).visitEnd();
+        writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "entry", ENTRY_DESCRIPTOR, null, null).visitEnd();
+
+        var init = writer.visitMethod(0, "<init>", CONSTRUCTOR.toMethodDescriptorString(), null, null);
+        init.visitCode();
+        init.visitVarInsn(Opcodes.ALOAD, 0);
+        init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        init.visitVarInsn(Opcodes.ALOAD, 0);
+        init.visitVarInsn(Opcodes.ALOAD, 1);
+        init.visitTypeInsn(Opcodes.CHECKCAST, typeName);
+        init.visitFieldInsn(Opcodes.PUTFIELD, name, "listener", typeDescriptor);
+        init.visitVarInsn(Opcodes.ALOAD, 0);
+        init.visitVarInsn(Opcodes.ALOAD, 2);
+        init.visitFieldInsn(Opcodes.PUTFIELD, name, "entry", ENTRY_DESCRIPTOR);
+        init.visitInsn(Opcodes.RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+
+        var generated = new HashSet<String>();
+        for (var method : type.getMethods()) {
+            if (Modifier.isAbstract(method.getModifiers()) && generated.add(method.getName() + Type.getMethodDescriptor(method))) {
+                generateMethod(writer, name, typeName, typeDescriptor, method);
+            }
+        }
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static void generateMethod(ClassWriter writer, String name, String typeName, String typeDescriptor, Method method) {
+        var descriptor = Type.getMethodDescriptor(method);
+        var methodType = Type.getType(method);
+
+        var visitor = writer.visitMethod(Opcodes.ACC_PUBLIC, method.getName(), descriptor, null, null);
+        visitor.visitCode();
+
+        int startLocal = 1;
+        for (var argument : methodType.getArgumentTypes()) {
+            startLocal += argument.getSize();
+        }
+
+        var tryStart = new Label();
+        var tryEnd = new Label();
+        var handler = new Label();
+        visitor.visitTryCatchBlock(tryStart, tryEnd, handler, null);
+
+        visitor.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/System", "nanoTime", "()J", false);
+        visitor.visitVarInsn(Opcodes.LSTORE, startLocal);
+
+        visitor.visitLabel(tryStart);
+        visitor.visitVarInsn(Opcodes.ALOAD, 0);
+        visitor.visitFieldInsn(Opcodes.GETFIELD, name, "listener", typeDescriptor);
+        int local = 1;
+        for (var argument : methodType.getArgumentTypes()) {
+            visitor.visitVarInsn(argument.getOpcode(Opcodes.ILOAD), local);
+            local += argument.getSize();
+        }
+        visitor.visitMethodInsn(Opcodes.INVOKEINTERFACE, typeName, method.getName(), descriptor, true);
+        visitor.visitLabel(tryEnd);
+
+        visitor.visitVarInsn(Opcodes.ALOAD, 0);
+        visitor.visitFieldInsn(Opcodes.GETFIELD, name, "entry", ENTRY_DESCRIPTOR);
+        visitor.visitVarInsn(Opcodes.LLOAD, startLocal);
+        visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, ENTRY, "recordSince", "(J)V", false);
+        visitor.visitInsn(methodType.getReturnType().getOpcode(Opcodes.IRETURN));
+
+        visitor.visitLabel(handler);
+        visitor.visitVarInsn(Opcodes.ALOAD, 0);
+        visitor.visitFieldInsn(Opcodes.GETFIELD, name, "entry", ENTRY_DESCRIPTOR);
+        visitor.visitVarInsn(Opcodes.LLOAD, startLocal);
+        visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, ENTRY, "recordFailureSince", "(J)V", false);
+        visitor.visitInsn(Opcodes.ATHROW);
+
+        visitor.visitMaxs(0, 0);
+        visitor.visitEnd();
+    }
+}
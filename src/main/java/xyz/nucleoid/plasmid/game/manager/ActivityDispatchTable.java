@@ -0,0 +1,61 @@
+package xyz.nucleoid.plasmid.game.manager;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import xyz.nucleoid.plasmid.game.event.GameEventListeners;
+import xyz.nucleoid.plasmid.game.rule.GameRuleMap;
+import xyz.nucleoid.stimuli.event.StimulusEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the invokers of a {@link ManagedGameActivity} for each event as one flat, immutable list: first the event
+ * listener invoker, followed by the invokers enforcing the activity's rules.
+ * <p>
+ * Lists are built the first time an event is dispatched and are kept until the listeners or rules of the activity
+ * change, so that dispatching does not need to look up and concatenate both sources every time.
+ */
+final class ActivityDispatchTable {
+    private final GameEventListeners listeners;
+    private final GameRuleMap rules;
+
+    private final Reference2ObjectMap<StimulusEvent<?>, List<?>> invokers = new Reference2ObjectOpenHashMap<>();
+
+    ActivityDispatchTable(GameEventListeners listeners, GameRuleMap rules) {
+        this.listeners = listeners;
+        this.rules = rules;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> List<T> get(StimulusEvent<T> event) {
+        var invokers = (List<T>) this.invokers.get(event);
+        if (invokers == null) {
+            invokers = this.build(event);
+            this.invokers.put(event, invokers);
+        }
+        return invokers;
+    }
+
+    void invalidate() {
+        this.invokers.clear();
+    }
+
+    private <T> List<T> build(StimulusEvent<T> event) {
+        var eventInvokers = this.listeners.getInvokersOrNull(event);
+        var ruleInvokers = this.rules.getInvokersOrNull(event);
+        if (eventInvokers == null && ruleInvokers == null) {
+            return List.of();
+        }
+
+        var invokers = new ArrayList<T>();
+        if (eventInvokers != null) {
+            eventInvokers.forEach(invokers::add);
+        }
+        if (ruleInvokers != null) {
+            ruleInvokers.forEach(invokers::add);
+        }
+
+        return List.copyOf(invokers);
+    }
+}
@@ -3,16 +3,19 @@ package xyz.nucleoid.plasmid.game.manager;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.ActionResult;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import xyz.nucleoid.plasmid.event.GameEvents;
 import xyz.nucleoid.plasmid.game.GameBehavior;
 import xyz.nucleoid.plasmid.game.GameCloseReason;
 import xyz.nucleoid.plasmid.game.GameSpace;
+import xyz.nucleoid.plasmid.game.GameTickPriority;
 import xyz.nucleoid.plasmid.game.event.GameActivityEvents;
 import xyz.nucleoid.plasmid.game.event.GamePlayerEvents;
 import xyz.nucleoid.plasmid.game.rule.GameRuleType;
 import xyz.nucleoid.stimuli.event.StimulusEvent;
 
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.function.Supplier;
 
 final class GameActivityState implements GameBehavior {
@@ -29,18 +32,21 @@ final class GameActivityState implements GameBehavior {
         var closedActivity = this.activity;
         this.gameSpace.getLifecycle().beforeActivityChange(gameSpace, activity, closedActivity);
 
-        if (closedActivity != null) {
-            disableActivity(gameSpace, closedActivity);
-            destroyActivity(gameSpace, closedActivity, GameCloseReason.SWAPPED);
-        }
+        // bundle the packets that the old and new activity send to each player while switching
+        gameSpace.getPlayers().batch(players -> {
+            if (closedActivity != null) {
+                disableActivity(gameSpace, closedActivity);
+                destroyActivity(gameSpace, closedActivity, GameCloseReason.SWAPPED);
+            }
 
-        var activity = factory.get();
-        this.activity = activity;
+            var activity = factory.get();
+            this.activity = activity;
 
-        createActivity(gameSpace, activity);
-        enableActivity(gameSpace, activity);
+            createActivity(gameSpace, activity);
+            enableActivity(gameSpace, activity);
+        });
 
-        this.gameSpace.getLifecycle().afterActivityChange(gameSpace, activity, closedActivity);
+        this.gameSpace.getLifecycle().afterActivityChange(gameSpace, this.activity, closedActivity);
     }
 
     boolean closeActivity(GameCloseReason reason) {
@@ -86,6 +92,16 @@ final class GameActivityState implements GameBehavior {
         GameEvents.DESTROY_ACTIVITY.invoker().onDestroyActivity(gameSpace, activity, reason);
     }
 
+    @Nullable
+    ManagedGameActivity getActivity() {
+        return this.activity;
+    }
+
+    GameTickPriority getTickPriority() {
+        var activity = this.activity;
+        return activity != null ? activity.getTickPriority() : GameTickPriority.NORMAL;
+    }
+
     @Override
     @NotNull
     public <T> T invoker(StimulusEvent<T> event) {
@@ -107,6 +123,16 @@ final class GameActivityState implements GameBehavior {
         return activity != null ? activity.getInvokers(event) : Collections.emptyList();
     }
 
+    <T> Iterator<T> selectInvokers(StimulusEvent<T> event) {
+        var activity = this.activity;
+        if (activity == null) {
+            return Collections.emptyIterator();
+        }
+
+        var invokers = activity.getInvokers(event);
+        return !invokers.isEmpty() ? invokers.iterator() : Collections.emptyIterator();
+    }
+
     @Override
     @NotNull
     public ActionResult testRule(GameRuleType rule) {
@@ -0,0 +1,62 @@
+package xyz.nucleoid.plasmid.game.manager;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link CompletableFuture} for a game space being opened through {@link GameSpaceManager#openTracked}, which additionally
+ * reports which stage of the open pipeline the request is currently in.
+ * <p>
+ * Cancelling this future before it reaches {@link Stage#COMMITTING} guarantees that the game space will not be created.
+ */
+public final class GameOpenFuture extends CompletableFuture<ManagedGameSpace> {
+    private final long createdNanos = System.nanoTime();
+    private volatile Stage stage = Stage.QUEUED;
+
+    GameOpenFuture() {
+    }
+
+    void setStage(Stage stage) {
+        this.stage = stage;
+    }
+
+    long getElapsedNanos() {
+        return System.nanoTime() - this.createdNanos;
+    }
+
+    /**
+     * @return the current stage of this open request
+     */
+    public Stage getStage() {
+        if (this.isCancelled()) {
+            return Stage.CANCELLED;
+        }
+        return this.stage;
+    }
+
+    public enum Stage {
+        /**
+         * Waiting for a free slot to start preparing.
+         */
+        QUEUED,
+        /**
+         * The open procedure is being created off the server thread.
+         */
+        PREPARING,
+        /**
+         * Prepared and waiting for tick budget to create the game space on the server thread.
+         */
+        COMMITTING,
+        /**
+         * The game space has been created and opened.
+         */
+        OPEN,
+        /**
+         * The game space failed to open.
+         */
+        FAILED,
+        /**
+         * The request was cancelled before the game space was created.
+         */
+        CANCELLED
+    }
+}
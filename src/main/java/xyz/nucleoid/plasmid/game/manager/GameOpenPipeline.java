@@ -0,0 +1,200 @@
+package xyz.nucleoid.plasmid.game.manager;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.util.Util;
+import xyz.nucleoid.plasmid.PlasmidMetrics;
+import xyz.nucleoid.plasmid.game.GameOpenException;
+import xyz.nucleoid.plasmid.game.GameOpenProcedure;
+import xyz.nucleoid.plasmid.game.GameTexts;
+import xyz.nucleoid.plasmid.game.config.GameConfig;
+
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens game spaces in two stages: the {@link GameOpenProcedure} is prepared off-thread with a bounded number of
+ * concurrent preparations, and prepared procedures are then committed on the server thread within a per-tick time
+ * budget, so that many games opening at once do not stall a single tick on world creation.
+ */
+public final class GameOpenPipeline {
+    private final GameSpaceManager manager;
+    private final Config config;
+
+    private final ArrayDeque<Request> queued = new ArrayDeque<>();
+    private final Set<Request> preparing = new ReferenceOpenHashSet<>();
+    private final ConcurrentLinkedQueue<Request> prepared = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<Request> committing = new ArrayDeque<>();
+
+    private boolean closed;
+
+    GameOpenPipeline(GameSpaceManager manager, Config config) {
+        this.manager = manager;
+        this.config = config;
+    }
+
+    void submit(GameConfig<?> config, boolean pooled, GameOpenFuture future) {
+        if (this.closed) {
+            future.cancel(false);
+            return;
+        }
+
+        // prepared requests stay in the preparing set until they are moved to committing on the next tick
+        if (this.getQueuedCount() >= this.config.maxQueued()) {
+            this.fail(future, new GameOpenException(GameTexts.Broadcast.gameOpenQueueFull()));
+            return;
+        }
+
+        this.queued.add(new Request(config, pooled, future));
+        this.startPreparing();
+    }
+
+    void tick() {
+        Request request;
+        while ((request = this.prepared.poll()) != null) {
+            this.preparing.remove(request);
+            this.onPrepared(request);
+        }
+
+        this.startPreparing();
+
+        long budget = TimeUnit.MILLISECONDS.toNanos(this.config.commitBudgetMillis());
+        long start = System.nanoTime();
+
+        // always commit at least one game space per tick so that a small budget cannot starve the pipeline
+        while ((request = this.committing.poll()) != null) {
+            if (request.future.isDone()) {
+                continue;
+            }
+
+            this.commit(request);
+
+            if (System.nanoTime() - start >= budget) {
+                break;
+            }
+        }
+    }
+
+    int getQueuedCount() {
+        return this.queued.size() + this.preparing.size() + this.committing.size();
+    }
+
+    void close() {
+        this.closed = true;
+
+        for (var request : this.queued) {
+            request.future.cancel(false);
+        }
+        for (var request : this.preparing) {
+            request.future.cancel(false);
+        }
+        for (var request : this.committing) {
+            request.future.cancel(false);
+        }
+
+        this.queued.clear();
+        this.preparing.clear();
+        this.prepared.clear();
+        this.committing.clear();
+    }
+
+    private void startPreparing() {
+        while (this.preparing.size() < this.config.maxConcurrentPrepares()) {
+            var request = this.queued.poll();
+            if (request == null) {
+                break;
+            }
+
+            if (request.future.isDone()) {
+                continue;
+            }
+
+            this.prepare(request);
+        }
+    }
+
+    private void prepare(Request request) {
+        var server = this.manager.getServer();
+
+        request.future.setStage(GameOpenFuture.Stage.PREPARING);
+        this.preparing.add(request);
+
+        CompletableFuture.supplyAsync(
+                () -> request.config.openProcedure(server),
+                Util.getMainWorkerExecutor()
+        ).whenComplete((procedure, throwable) -> {
+            request.procedure = procedure;
+            request.error = throwable;
+            this.prepared.add(request);
+        });
+    }
+
+    private void onPrepared(Request request) {
+        var future = request.future;
+        if (future.isDone()) {
+            return;
+        }
+
+        if (request.error != null) {
+            this.fail(future, request.error);
+        } else {
+            future.setStage(GameOpenFuture.Stage.COMMITTING);
+            this.committing.add(request);
+        }
+    }
+
+    private void commit(Request request) {
+        var future = request.future;
+        var procedure = request.procedure;
+        var config = procedure.configOverride() != null ? procedure.configOverride() : request.config;
+
+        try {
+            var gameSpace = this.manager.addGameSpace(config, procedure, request.pooled);
+            if (!request.pooled) {
+                PlasmidMetrics.INSTANCE.recordOpenLatency(future.getElapsedNanos());
+            }
+
+            future.setStage(GameOpenFuture.Stage.OPEN);
+            future.complete(gameSpace);
+        } catch (Throwable throwable) {
+            this.fail(future, throwable);
+        }
+    }
+
+    private void fail(GameOpenFuture future, Throwable throwable) {
+        PlasmidMetrics.INSTANCE.onGameOpenFailed();
+        future.setStage(GameOpenFuture.Stage.FAILED);
+        future.completeExceptionally(throwable);
+    }
+
+    private static final class Request {
+        final GameConfig<?> config;
+        final boolean pooled;
+        final GameOpenFuture future;
+
+        GameOpenProcedure procedure;
+        Throwable error;
+
+        Request(GameConfig<?> config, boolean pooled, GameOpenFuture future) {
+            this.config = config;
+            this.pooled = pooled;
+            this.future = future;
+        }
+    }
+
+    public record Config(int maxConcurrentPrepares, int maxQueued, int commitBudgetMillis) {
+        public static final Config DEFAULT = new Config(4, 64, 10);
+
+        public static final Codec<Config> CODEC = RecordCodecBuilder.create(instance ->
+                instance.group(
+                        Codec.intRange(1, 64).optionalFieldOf("max_concurrent_prepares", DEFAULT.maxConcurrentPrepares).forGetter(Config::maxConcurrentPrepares),
+                        Codec.intRange(0, Integer.MAX_VALUE).optionalFieldOf("max_queued", DEFAULT.maxQueued).forGetter(Config::maxQueued),
+                        Codec.intRange(0, 50).optionalFieldOf("commit_budget_millis", DEFAULT.commitBudgetMillis).forGetter(Config::commitBudgetMillis)
+                ).apply(instance, Config::new)
+        );
+    }
+}
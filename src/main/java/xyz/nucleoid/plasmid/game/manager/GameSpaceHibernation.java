@@ -0,0 +1,92 @@
+package xyz.nucleoid.plasmid.game.manager;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.minecraft.server.MinecraftServer;
+import xyz.nucleoid.plasmid.util.compatibility.AfkDisplayCompatibility;
+
+import java.util.Collection;
+
+/**
+ * Puts game spaces into hibernation once they have had no active players for a configured time. This is disabled by
+ * default.
+ * <p>
+ * Only game spaces without any players are hibernated, unless {@link Config#includeAfkPlayers()} is set, in which case
+ * game spaces whose players are all AFK are hibernated too, which pauses any running match within them.
+ * <p>
+ * A hibernating game space does not tick its worlds, invoke its tick listeners or run its scheduled tasks, and releases
+ * the chunks that it force-loads. Commands posted to it are still run. Its {@link ManagedGameSpace#getTime() time}
+ * keeps advancing, so timers based on it keep counting down, and scheduled tasks that came due while hibernating all
+ * run once it wakes. It wakes as soon as a player is offered to it or an active player is found within it.
+ *
+ * @see ManagedGameSpace#isHibernating()
+ */
+public final class GameSpaceHibernation {
+    private static final int CHECK_INTERVAL = 20;
+
+    private final MinecraftServer server;
+    private final Config config;
+
+    GameSpaceHibernation(MinecraftServer server, Config config) {
+        this.server = server;
+        this.config = config;
+    }
+
+    void tick(Collection<ManagedGameSpace> gameSpaces) {
+        if (this.config.idleTicks() <= 0) {
+            return;
+        }
+
+        int time = this.server.getTicks();
+        if (time % CHECK_INTERVAL != 0) {
+            return;
+        }
+
+        for (var gameSpace : gameSpaces) {
+            if (!gameSpace.isClosed()) {
+                this.tick(gameSpace, time);
+            }
+        }
+    }
+
+    private void tick(ManagedGameSpace gameSpace, int time) {
+        if (this.isActive(gameSpace)) {
+            gameSpace.wake();
+            return;
+        }
+
+        if (!gameSpace.isHibernating() && time - gameSpace.getIdleSince(time) >= this.config.idleTicks()) {
+            gameSpace.hibernate();
+        }
+    }
+
+    private boolean isActive(ManagedGameSpace gameSpace) {
+        var players = gameSpace.getPlayers();
+        if (!this.config.includeAfkPlayers()) {
+            return !players.isEmpty();
+        }
+
+        for (var player : players) {
+            if (AfkDisplayCompatibility.isActive(player)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param idleTicks the number of ticks that a game space must be idle for before hibernating, or {@code 0} to never
+     * hibernate game spaces
+     * @param includeAfkPlayers whether game spaces whose players are all AFK count as idle
+     */
+    public record Config(int idleTicks, boolean includeAfkPlayers) {
+        public static final Config DEFAULT = new Config(0, false);
+
+        public static final Codec<Config> CODEC = RecordCodecBuilder.create(instance ->
+                instance.group(
+                        Codec.intRange(0, Integer.MAX_VALUE).optionalFieldOf("idle_ticks", DEFAULT.idleTicks).forGetter(Config::idleTicks),
+                        Codec.BOOL.optionalFieldOf("include_afk_players", DEFAULT.includeAfkPlayers).forGetter(Config::includeAfkPlayers)
+                ).apply(instance, Config::new)
+        );
+    }
+}
@@ -0,0 +1,88 @@
+package xyz.nucleoid.plasmid.game.manager;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import xyz.nucleoid.plasmid.Plasmid;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A queue of commands posted to a {@link ManagedGameSpace} from any thread, which are run on the server thread in the
+ * order that they were posted while that game space ticks.
+ * <p>
+ * Posting does not take any locks. At most a configured number of commands are run per tick, with any others left for
+ * the following ticks, and commands posted to a closed game space are dropped.
+ *
+ * @see ManagedGameSpace#post(Runnable)
+ */
+public final class GameSpaceInbox {
+    private final Config config;
+
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile boolean closed;
+
+    GameSpaceInbox(Config config) {
+        this.config = config;
+    }
+
+    boolean post(Runnable command) {
+        if (this.closed) {
+            return false;
+        }
+
+        this.size.incrementAndGet();
+        this.commands.add(command);
+
+        // the inbox may have closed and been cleared while we were adding to it
+        if (this.closed) {
+            this.clear();
+            return false;
+        }
+
+        return true;
+    }
+
+    void drain(ManagedGameSpace gameSpace) {
+        int limit = this.config.maxCommandsPerTick();
+        for (int i = 0; i < limit && !this.closed; i++) {
+            var command = this.commands.poll();
+            if (command == null) {
+                break;
+            }
+            this.size.decrementAndGet();
+
+            try {
+                command.run();
+            } catch (Throwable throwable) {
+                Plasmid.LOGGER.error("An unexpected exception occurred while running a command posted to game space {}", gameSpace.getMetadata().id(), throwable);
+            }
+        }
+    }
+
+    void close() {
+        this.closed = true;
+        this.clear();
+    }
+
+    private void clear() {
+        while (this.commands.poll() != null) {
+            this.size.decrementAndGet();
+        }
+    }
+
+    int size() {
+        return Math.max(this.size.get(), 0);
+    }
+
+    public record Config(int maxCommandsPerTick) {
+        public static final Config DEFAULT = new Config(256);
+
+        public static final Codec<Config> CODEC = RecordCodecBuilder.create(instance ->
+                instance.group(
+                        Codec.intRange(1, Integer.MAX_VALUE).optionalFieldOf("max_commands_per_tick", DEFAULT.maxCommandsPerTick).forGetter(Config::maxCommandsPerTick)
+                ).apply(instance, Config::new)
+        );
+    }
+}
@@ -9,16 +9,18 @@ import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Identifier;
-import net.minecraft.util.Util;
 import net.minecraft.world.World;
 import org.jetbrains.annotations.Nullable;
 import xyz.nucleoid.plasmid.Plasmid;
+import xyz.nucleoid.plasmid.PlasmidConfig;
+import xyz.nucleoid.plasmid.PlasmidMetrics;
 import xyz.nucleoid.plasmid.event.GameEvents;
 import xyz.nucleoid.plasmid.game.GameCloseReason;
 import xyz.nucleoid.plasmid.game.GameOpenProcedure;
 import xyz.nucleoid.plasmid.game.GameSpaceMetadata;
 import xyz.nucleoid.plasmid.game.config.GameConfig;
 import xyz.nucleoid.plasmid.game.player.PlayerSet;
+import xyz.nucleoid.plasmid.game.player.isolation.PlayerManagerAccess;
 import xyz.nucleoid.stimuli.EventSource;
 import xyz.nucleoid.stimuli.Stimuli;
 import xyz.nucleoid.stimuli.event.StimulusEvent;
@@ -28,7 +30,7 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 
 public final class GameSpaceManager {
-    private static GameSpaceManager instance;
+    private static volatile GameSpaceManager instance;
 
     private final MinecraftServer server;
 
@@ -40,11 +42,28 @@ public final class GameSpaceManager {
     private final Map<Identifier, ManagedGameSpace> userIdToGameSpace = new Object2ObjectOpenHashMap<>();
     private final Map<RegistryKey<World>, ManagedGameSpace> dimensionToGameSpace = new Reference2ObjectOpenHashMap<>();
     private final Map<UUID, ManagedGameSpace> playerToGameSpace = new Object2ObjectOpenHashMap<>();
+    private final LobbyPlayerSet playersNotInGame = new LobbyPlayerSet();
+
+    private final GameSpacePool pool;
+    private final GameOpenPipeline openPipeline;
+    private final GameSpaceTickScheduler tickScheduler;
+    private final GameWorldTeardown worldTeardown;
+    private final GameSpaceHibernation hibernation;
+    private final GameSpaceInbox.Config inboxConfig;
 
     private final ListenerSelector listenerSelector = new ListenerSelector();
 
+    private volatile GameSpaceSnapshot snapshot = GameSpaceSnapshot.EMPTY;
+    private boolean snapshotDirty;
+
     private GameSpaceManager(MinecraftServer server) {
         this.server = server;
+        this.pool = new GameSpacePool(this, PlasmidConfig.get().gameSpacePools());
+        this.openPipeline = new GameOpenPipeline(this, PlasmidConfig.get().gameOpenPipeline());
+        this.tickScheduler = new GameSpaceTickScheduler(PlasmidConfig.get().gameTickScheduler());
+        this.worldTeardown = new GameWorldTeardown(server, PlasmidConfig.get().gameWorldTeardown());
+        this.hibernation = new GameSpaceHibernation(server, PlasmidConfig.get().gameSpaceHibernation());
+        this.inboxConfig = PlasmidConfig.get().gameSpaceInbox();
     }
 
     public static void openServer(MinecraftServer server) {
@@ -66,6 +85,20 @@ public final class GameSpaceManager {
         }
     }
 
+    public static void startServerTick() {
+        var instance = GameSpaceManager.instance;
+        if (instance != null) {
+            instance.tickScheduler.startTick();
+        }
+    }
+
+    public static void tickServer() {
+        var instance = GameSpaceManager.instance;
+        if (instance != null) {
+            instance.tick();
+        }
+    }
+
     public static void closeServer() {
         GameSpaceManager.instance = null;
     }
@@ -74,17 +107,130 @@ public final class GameSpaceManager {
         return Preconditions.checkNotNull(instance, "GameSpaceManager not yet initialized");
     }
 
+    /**
+     * Opens a new game space for the given config, or claims a waiting one from the {@link GameSpacePool}.
+     *
+     * @param config the game config to open
+     * @return a future completing with the opened game space on the server thread
+     * @see GameSpaceManager#openTracked(GameConfig)
+     */
     public CompletableFuture<ManagedGameSpace> open(GameConfig<?> config) {
-        return CompletableFuture.supplyAsync(
-                () -> config.openProcedure(this.server),
-                Util.getMainWorkerExecutor()
-        ).thenApplyAsync(
-                procedure -> this.addGameSpace(procedure.configOverride() != null ? procedure.configOverride() : config, procedure),
-                this.server
-        );
+        return this.openTracked(config);
+    }
+
+    /**
+     * Opens a new game space for the given config, or claims a waiting one from the {@link GameSpacePool}.
+     * <p>
+     * New game spaces go through the {@link GameOpenPipeline}: the returned future reports the current stage of the
+     * request and may be cancelled up until the game space is created on the server thread.
+     *
+     * @param config the game config to open
+     * @return a future completing with the opened game space on the server thread
+     */
+    public GameOpenFuture openTracked(GameConfig<?> config) {
+        var future = new GameOpenFuture();
+        if (this.server.isOnThread()) {
+            this.submitOpen(config, future);
+        } else {
+            this.server.execute(() -> this.submitOpen(config, future));
+        }
+        return future;
+    }
+
+    GameOpenFuture openPooled(GameConfig<?> config) {
+        var future = new GameOpenFuture();
+        this.openPipeline.submit(config, true, future);
+        return future;
     }
 
-    private ManagedGameSpace addGameSpace(GameConfig<?> config, GameOpenProcedure procedure) {
+    private void submitOpen(GameConfig<?> config, GameOpenFuture future) {
+        if (future.isDone()) {
+            return;
+        }
+
+        var pooled = this.pool.claim(config);
+        if (pooled != null) {
+            this.gameSpaces.add(pooled);
+            this.invalidateSnapshot();
+            this.onOpened(pooled);
+            PlasmidMetrics.INSTANCE.recordOpenLatency(future.getElapsedNanos());
+            future.setStage(GameOpenFuture.Stage.OPEN);
+            future.complete(pooled);
+            return;
+        }
+
+        this.openPipeline.submit(config, false, future);
+    }
+
+    void tick() {
+        this.tickGameSpaces();
+        this.tickScheduler.endTick();
+        this.openPipeline.tick();
+        this.worldTeardown.tick();
+        // pooled game spaces are included so that they can hibernate while waiting to be claimed
+        this.hibernation.tick(this.idToGameSpace.values());
+        this.publishSnapshot();
+        PlasmidMetrics.INSTANCE.tick(this);
+    }
+
+    void invalidateSnapshot() {
+        this.snapshotDirty = true;
+    }
+
+    private void publishSnapshot() {
+        if (this.snapshotDirty) {
+            this.snapshotDirty = false;
+            this.snapshot = GameSpaceSnapshot.capture(this.snapshot.version() + 1, this.gameSpaces);
+        }
+    }
+
+    /**
+     * Returns an immutable view of the open game spaces as of the end of the last server tick. Unlike the other
+     * accessors of this manager, this may be called from any thread.
+     *
+     * @return the latest published snapshot of the open game spaces
+     */
+    public GameSpaceSnapshot getSnapshot() {
+        return this.snapshot;
+    }
+
+    private void tickGameSpaces() {
+        if (this.idToGameSpace.isEmpty()) {
+            return;
+        }
+
+        // commands and tasks may close their game space, so iterate over a copy
+        for (var gameSpace : new ArrayList<>(this.idToGameSpace.values())) {
+            // the inbox is still drained while hibernating, since what is posted to it may need to wake the game space
+            if (!gameSpace.isClosed()) {
+                gameSpace.drainInbox();
+            }
+            if (!gameSpace.isClosed() && !gameSpace.isHibernating()) {
+                gameSpace.tickSchedulers();
+            }
+        }
+    }
+
+    /**
+     * Invokes the tick event of the game space owning the given world, if any, subject to the tick budget.
+     *
+     * @param world the world that has just been ticked
+     */
+    public void tickWorld(World world) {
+        var gameSpace = this.byWorld(world);
+        if (gameSpace != null) {
+            this.tickScheduler.tick(gameSpace);
+        }
+    }
+
+    /**
+     * @return the number of game spaces that have been requested to open but are not yet created
+     */
+    public int getPendingOpenCount() {
+        return this.openPipeline.getQueuedCount();
+    }
+
+    ManagedGameSpace addGameSpace(GameConfig<?> config, GameOpenProcedure procedure, boolean pooled) {
         var id = UUID.randomUUID();
 
         var userId = this.userIds.acquire(config);
@@ -94,22 +240,56 @@ public final class GameSpaceManager {
 
         var gameSpace = new ManagedGameSpace(this.server, this, metadata);
 
-        this.gameSpaces.add(gameSpace);
+        // pooled game spaces are only listed as open once they are claimed
+        if (!pooled) {
+            this.gameSpaces.add(gameSpace);
+            this.invalidateSnapshot();
+        }
         this.idToGameSpace.put(id, gameSpace);
         this.userIdToGameSpace.put(userId, gameSpace);
 
-        Plasmid.LOGGER.info("Game space {} (source: {}) opened", id, config.source());
-        GameEvents.OPENED.invoker().onGameSpaceOpened(config, gameSpace);
+        Plasmid.LOGGER.info("Game space {} (source: {}) opened{}", id, config.source(), pooled ? " into the warm pool" : "");
+
+        // pooled game spaces are only announced as opened once they are claimed and listed
+        if (!pooled) {
+            this.onOpened(gameSpace);
+        }
 
         procedure.apply(gameSpace);
 
         return gameSpace;
     }
 
+    private void onOpened(ManagedGameSpace gameSpace) {
+        var config = gameSpace.getMetadata().sourceConfig();
+        PlasmidMetrics.INSTANCE.onGameOpened(config.type().id());
+        GameEvents.OPENED.invoker().onGameSpaceOpened(config, gameSpace);
+    }
+
     public Collection<ManagedGameSpace> getOpenGameSpaces() {
         return this.gameSpaces;
     }
 
+    public GameSpaceTickScheduler getTickScheduler() {
+        return this.tickScheduler;
+    }
+
+    GameSpaceInbox.Config getInboxConfig() {
+        return this.inboxConfig;
+    }
+
+    public GameWorldTeardown getWorldTeardown() {
+        return this.worldTeardown;
+    }
+
+    public GameSpacePool getPool() {
+        return this.pool;
+    }
+
+    public MinecraftServer getServer() {
+        return this.server;
+    }
+
     @Nullable
     public ManagedGameSpace byId(UUID id) {
         return this.idToGameSpace.get(id);
@@ -142,7 +322,10 @@ public final class GameSpaceManager {
         var metadata = gameSpace.getMetadata();
         this.idToGameSpace.remove(metadata.id(), gameSpace);
         this.userIdToGameSpace.remove(metadata.userId(), gameSpace);
-        this.gameSpaces.remove(gameSpace);
+        if (this.gameSpaces.remove(gameSpace)) {
+            this.invalidateSnapshot();
+        }
+        this.pool.remove(gameSpace);
         this.userIds.release(metadata.userId());
     }
 
@@ -156,15 +339,28 @@ public final class GameSpaceManager {
 
     void addPlayerToGameSpace(ManagedGameSpace gameSpace, ServerPlayerEntity player) {
         this.playerToGameSpace.put(player.getUuid(), gameSpace);
+        this.playersNotInGame.remove(player.getUuid());
+        this.invalidateSnapshot();
     }
 
     void removePlayerFromGameSpace(ManagedGameSpace gameSpace, ServerPlayerEntity player) {
-        this.playerToGameSpace.remove(player.getUuid(), gameSpace);
+        if (this.playerToGameSpace.remove(player.getUuid(), gameSpace)) {
+            this.invalidateSnapshot();
+
+            // the player is only back in the lobby if this entity is still the one in the player list
+            var playerManager = (PlayerManagerAccess) this.server.getPlayerManager();
+            if (playerManager.plasmid$playerInstanceAlreadyExists(player)) {
+                this.playersNotInGame.add(player);
+            }
+        }
     }
 
     private void close() {
         Stimuli.unregisterSelector(this.listenerSelector);
 
+        this.openPipeline.close();
+        this.pool.close();
+
         var gameSpaces = Lists.newArrayList(this.gameSpaces);
         this.gameSpaces.clear();
 
@@ -172,10 +368,15 @@ public final class GameSpaceManager {
             gameSpace.close(GameCloseReason.CANCELED);
         }
 
+        this.worldTeardown.close();
+
         this.idToGameSpace.clear();
         this.userIdToGameSpace.clear();
         this.dimensionToGameSpace.clear();
         this.playerToGameSpace.clear();
+        this.playersNotInGame.clear();
+
+        this.snapshot = new GameSpaceSnapshot(this.snapshot.version() + 1, List.of());
     }
 
     final class ListenerSelector implements EventListenerSelector {
@@ -183,7 +384,7 @@ public final class GameSpaceManager {
         public <T> Iterator<T> selectListeners(MinecraftServer server, StimulusEvent<T> event, EventSource source) {
             var gameSpace = this.getGameSpaceFor(source);
             if (gameSpace != null) {
-                return gameSpace.getBehavior().getInvokers(event).iterator();
+                return gameSpace.selectInvokers(event);
             }
 
             return Collections.emptyIterator();
@@ -208,47 +409,35 @@ public final class GameSpaceManager {
     }
 
     /**
-        * @return A set of players that are not in any game space. This set does not update itself and need to be generated again if a player joins a game space
+     * @return a live set of the players that are not in any game space, updated as players connect, disconnect and
+     * move between game spaces
      */
+    public PlayerSet getPlayersNotInGame() {
+        return this.playersNotInGame;
+    }
 
-    public PlayerSet getPlayersNotInGame()
-    {
-        var playerManager = this.server.getPlayerManager();
-        return new PlayerSet()
-        {
-            private List<ServerPlayerEntity> get()
-            {
-                var playerList = new ArrayList<ServerPlayerEntity>();
-                for(var player : playerManager.getPlayerList())
-                {
-                    var gameSpace = GameSpaceManager.get().byPlayer(player);
-                    if(gameSpace == null) playerList.add(player);
-                }
-                return playerList;
-            }
-            @Override
-            public boolean contains(UUID id) {
-                return this.getEntity(id) != null;
-            }
+    /**
+     * Called when a player entity is added to the server player list, either on connect, when swapped back in after
+     * leaving a game space, or when respawned. A new entity for a player that is already tracked replaces the previous
+     * entity, so that no dead entity is kept once vanilla respawns the player.
+     */
+    public void onPlayerListAdd(ServerPlayerEntity player) {
+        ((PlayerManagerAccess) this.server.getPlayerManager()).plasmid$getPlayerSlots().onPlayerListAdd(player);
 
-            @Override
-            public @Nullable ServerPlayerEntity getEntity(UUID id) {
-                for(var player : this.get())
-                {
-                    if(player.getUuid().equals(id)) return player;
-                }
-                return null;
-            }
+        if (!this.inGame(player)) {
+            this.playersNotInGame.add(player);
+        }
+    }
 
-            @Override
-            public int size() {
-                return this.get().size();
-            }
+    /**
+     * Called when a player entity is removed from the server player list, either on disconnect or when swapped out for
+     * a game space instance.
+     */
+    public void onPlayerListRemove(ServerPlayerEntity player) {
+        ((PlayerManagerAccess) this.server.getPlayerManager()).plasmid$getPlayerSlots().onPlayerListRemove(player);
 
-            @Override
-            public Iterator<ServerPlayerEntity> iterator() {
-                return this.get().iterator();
-            }
-        };
+        if (this.playersNotInGame.getEntity(player.getUuid()) == player) {
+            this.playersNotInGame.remove(player.getUuid());
+        }
     }
 }
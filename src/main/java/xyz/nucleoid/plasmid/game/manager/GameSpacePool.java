@@ -0,0 +1,192 @@
+package xyz.nucleoid.plasmid.game.manager;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+import xyz.nucleoid.plasmid.Plasmid;
+import xyz.nucleoid.plasmid.game.GameCloseReason;
+import xyz.nucleoid.plasmid.game.config.GameConfig;
+import xyz.nucleoid.plasmid.game.config.GameConfigs;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+
+/**
+ * Keeps a configured number of opened, empty game spaces ready for each pooled {@link GameConfig}, so that
+ * {@link GameSpaceManager#open(GameConfig)} can hand one out without waiting for the open procedure and world creation.
+ * <p>
+ * Pooled game spaces are registered with the manager (their worlds and ids resolve as normal) but are not listed as
+ * open until claimed. Whenever one is claimed, a replacement is opened in the background.
+ */
+public final class GameSpacePool {
+    private final GameSpaceManager manager;
+    private final Map<Identifier, Entry> entries = new Object2ObjectOpenHashMap<>();
+
+    private long hits;
+    private long misses;
+    private boolean closed;
+
+    GameSpacePool(GameSpaceManager manager, Map<Identifier, Integer> sizes) {
+        this.manager = manager;
+
+        sizes.forEach((id, size) -> {
+            if (size > 0) {
+                this.entries.put(id, new Entry(id, size));
+            }
+        });
+    }
+
+    /**
+     * Opens game spaces until every pool is at its configured size.
+     */
+    public void fill() {
+        if (this.closed) {
+            return;
+        }
+
+        for (var entry : this.entries.values()) {
+            entry.fill();
+        }
+    }
+
+    /**
+     * Closes all waiting game spaces and refills the pools from the currently loaded {@link GameConfigs}. This should be
+     * called whenever game configs are reloaded, as the pooled game spaces refer to the old configs.
+     */
+    public void reset() {
+        for (var entry : this.entries.values()) {
+            entry.drain();
+        }
+        this.fill();
+    }
+
+    @Nullable
+    ManagedGameSpace claim(GameConfig<?> config) {
+        var source = config.source();
+        var entry = source != null ? this.entries.get(source) : null;
+        if (entry == null || this.closed) {
+            return null;
+        }
+
+        var gameSpace = entry.poll(config);
+        if (gameSpace != null) {
+            this.hits++;
+        } else {
+            this.misses++;
+        }
+
+        entry.fill();
+
+        return gameSpace;
+    }
+
+    void remove(ManagedGameSpace gameSpace) {
+        for (var entry : this.entries.values()) {
+            entry.ready.remove(gameSpace);
+        }
+    }
+
+    void close() {
+        this.closed = true;
+        for (var entry : this.entries.values()) {
+            entry.drain();
+        }
+    }
+
+    /**
+     * @return the number of opens that were served by a waiting game space
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * @return the number of opens for a pooled config that had no waiting game space available
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * @param id the id of the pooled game config
+     * @return the number of game spaces currently waiting to be claimed for the given config
+     */
+    public int getReadyCount(Identifier id) {
+        var entry = this.entries.get(id);
+        return entry != null ? entry.ready.size() : 0;
+    }
+
+    private final class Entry {
+        private final Identifier id;
+        private final int size;
+
+        private final ArrayDeque<ManagedGameSpace> ready = new ArrayDeque<>();
+        private GameConfig<?> config;
+        private int pending;
+        private int generation;
+
+        Entry(Identifier id, int size) {
+            this.id = id;
+            this.size = size;
+        }
+
+        void fill() {
+            var config = GameConfigs.get(this.id);
+            if (config == null) {
+                return;
+            }
+
+            this.config = config;
+            while (this.ready.size() + this.pending < this.size) {
+                this.openOne(config);
+            }
+        }
+
+        private void openOne(GameConfig<?> config) {
+            var pool = GameSpacePool.this;
+            int generation = this.generation;
+            this.pending++;
+
+            pool.manager.openPooled(config).whenCompleteAsync((gameSpace, throwable) -> {
+                this.pending--;
+
+                if (throwable != null) {
+                    if (!pool.closed) {
+                        Plasmid.LOGGER.warn("Failed to open pooled game space for {}", this.id, throwable);
+                    }
+                    return;
+                }
+                if (pool.closed || generation != this.generation) {
+                    gameSpace.close(GameCloseReason.CANCELED);
+                } else {
+                    this.ready.add(gameSpace);
+                }
+            }, pool.manager.getServer());
+        }
+
+        @Nullable
+        ManagedGameSpace poll(GameConfig<?> config) {
+            if (config != this.config) {
+                return null;
+            }
+
+            ManagedGameSpace gameSpace;
+            while ((gameSpace = this.ready.poll()) != null) {
+                if (!gameSpace.isClosed()) {
+                    return gameSpace;
+                }
+            }
+
+            return null;
+        }
+
+        void drain() {
+            this.generation++;
+
+            ManagedGameSpace gameSpace;
+            while ((gameSpace = this.ready.poll()) != null) {
+                gameSpace.close(GameCloseReason.CANCELED);
+            }
+        }
+    }
+}
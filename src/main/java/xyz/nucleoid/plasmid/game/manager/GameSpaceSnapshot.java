@@ -0,0 +1,81 @@
+package xyz.nucleoid.plasmid.game.manager;
+
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+import xyz.nucleoid.plasmid.game.GameSpaceMetadata;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An immutable view of the game spaces that were open at the end of a server tick, which is safe to read from any
+ * thread.
+ * <p>
+ * The {@link GameSpaceManager} publishes a new snapshot with an incremented version at the end of every tick in which
+ * a game space was opened or closed, changed its players, or entered or left hibernation.
+ *
+ * @param version a number that increases with every published snapshot
+ * @param gameSpaces the open game spaces, in the order that they were opened
+ * @see GameSpaceManager#getSnapshot()
+ */
+public record GameSpaceSnapshot(long version, List<Entry> gameSpaces) {
+    public static final GameSpaceSnapshot EMPTY = new GameSpaceSnapshot(0, List.of());
+
+    static GameSpaceSnapshot capture(long version, Collection<ManagedGameSpace> gameSpaces) {
+        var entries = new ArrayList<Entry>(gameSpaces.size());
+        for (var gameSpace : gameSpaces) {
+            entries.add(new Entry(
+                    gameSpace.getMetadata(),
+                    gameSpace.getPlayers().size(),
+                    gameSpace.isHibernating() ? State.HIBERNATING : State.ACTIVE
+            ));
+        }
+        return new GameSpaceSnapshot(version, List.copyOf(entries));
+    }
+
+    @Nullable
+    public Entry byId(UUID id) {
+        for (var entry : this.gameSpaces) {
+            if (entry.metadata().id().equals(id)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    public Entry byUserId(Identifier userId) {
+        for (var entry : this.gameSpaces) {
+            if (entry.metadata().userId().equals(userId)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the total number of players across all of the game spaces in this snapshot
+     */
+    public int getPlayerCount() {
+        int count = 0;
+        for (var entry : this.gameSpaces) {
+            count += entry.players();
+        }
+        return count;
+    }
+
+    /**
+     * @param metadata the metadata of the game space
+     * @param players the number of players in the game space
+     * @param state whether the game space is active or hibernating
+     */
+    public record Entry(GameSpaceMetadata metadata, int players, State state) {
+    }
+
+    public enum State {
+        ACTIVE,
+        HIBERNATING
+    }
+}
@@ -0,0 +1,150 @@
+package xyz.nucleoid.plasmid.game.manager;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import xyz.nucleoid.plasmid.game.GameTickPriority;
+import xyz.nucleoid.plasmid.game.event.GameActivityEvents;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invokes {@link GameActivityEvents#TICK} for game spaces while measuring how long each tick takes.
+ * <p>
+ * Once the current server tick has run past the configured budget, spaces with {@link GameTickPriority#LOW} have
+ * their ticks skipped. A space is never skipped more than a bounded number of ticks in a row, so that skipping rotates
+ * between low priority spaces rather than always starving the ones whose worlds tick last.
+ */
+public final class GameSpaceTickScheduler {
+    private final Config config;
+    private final long budgetNanos;
+
+    private long tickStart = System.nanoTime();
+
+    private long skippedTicks;
+    private long overBudgetTicks;
+    private boolean overBudget;
+
+    GameSpaceTickScheduler(Config config) {
+        this.config = config;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(config.budgetMillis());
+    }
+
+    void startTick() {
+        this.tickStart = System.nanoTime();
+        this.overBudget = false;
+    }
+
+    void endTick() {
+        // measured here rather than when skipping so that ticks without any low priority space are counted too
+        if (this.isOverBudget()) {
+            this.overBudgetTicks++;
+        }
+    }
+
+    void tick(ManagedGameSpace gameSpace) {
+        var stats = gameSpace.getTickStats();
+        if (this.shouldSkip(gameSpace, stats)) {
+            stats.onSkipped();
+            this.skippedTicks++;
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            gameSpace.getBehavior().propagatingInvoker(GameActivityEvents.TICK).onTick();
+        } catch (Throwable t) {
+            gameSpace.closeWithError("An unexpected error occurred while ticking the game");
+        } finally {
+            stats.onTicked(System.nanoTime() - start);
+        }
+    }
+
+    private boolean shouldSkip(ManagedGameSpace gameSpace, Stats stats) {
+        if (gameSpace.getTickPriority() != GameTickPriority.LOW) {
+            return false;
+        }
+
+        if (!this.isOverBudget()) {
+            return false;
+        }
+
+        return stats.consecutiveSkips < this.config.maxSkippedTicks();
+    }
+
+    private boolean isOverBudget() {
+        if (!this.overBudget && System.nanoTime() - this.tickStart > this.budgetNanos) {
+            this.overBudget = true;
+        }
+        return this.overBudget;
+    }
+
+    /**
+     * @return the total number of game space ticks that have been skipped
+     */
+    public long getSkippedTicks() {
+        return this.skippedTicks;
+    }
+
+    /**
+     * @return the number of server ticks during which game space ticking ran past the budget
+     */
+    public long getOverBudgetTicks() {
+        return this.overBudgetTicks;
+    }
+
+    /**
+     * Tick timing statistics for a single game space.
+     */
+    public static final class Stats {
+        private long ticks;
+        private long totalNanos;
+        private long maxNanos;
+        private long lastNanos;
+        private long skipped;
+        private int consecutiveSkips;
+
+        void onTicked(long nanos) {
+            this.ticks++;
+            this.totalNanos += nanos;
+            this.maxNanos = Math.max(this.maxNanos, nanos);
+            this.lastNanos = nanos;
+            this.consecutiveSkips = 0;
+        }
+
+        void onSkipped() {
+            this.skipped++;
+            this.consecutiveSkips++;
+        }
+
+        public long getTicks() {
+            return this.ticks;
+        }
+
+        public long getTotalNanos() {
+            return this.totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return this.maxNanos;
+        }
+
+        public long getLastNanos() {
+            return this.lastNanos;
+        }
+
+        public long getSkippedTicks() {
+            return this.skipped;
+        }
+    }
+
+    public record Config(int budgetMillis, int maxSkippedTicks) {
+        public static final Config DEFAULT = new Config(40, 4);
+
+        public static final Codec<Config> CODEC = RecordCodecBuilder.create(instance ->
+                instance.group(
+                        Codec.intRange(0, 1000).optionalFieldOf("budget_millis", DEFAULT.budgetMillis).forGetter(Config::budgetMillis),
+                        Codec.intRange(0, 200).optionalFieldOf("max_skipped_ticks", DEFAULT.maxSkippedTicks).forGetter(Config::maxSkippedTicks)
+                ).apply(instance, Config::new)
+        );
+    }
+}
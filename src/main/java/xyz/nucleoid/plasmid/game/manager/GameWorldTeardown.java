@@ -0,0 +1,148 @@
+package xyz.nucleoid.plasmid.game.manager;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.World;
+import xyz.nucleoid.fantasy.RuntimeWorldHandle;
+import xyz.nucleoid.plasmid.Plasmid;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Spreads the unloading and deletion of game space worlds over multiple ticks.
+ * <p>
+ * Worlds are detached from ticking as soon as they are submitted, but are only handed to fantasy for deletion a few at
+ * a time, with a bound on how many may be unloading at once. This avoids a single tick having to unload every world of
+ * a large map, or of many game spaces closing together.
+ * <p>
+ * A world that is still loaded {@link GameWorldTeardown#TIMEOUT_TICKS} ticks after its deletion started is given up
+ * on, and its future completes exceptionally with a {@link TimeoutException}.
+ */
+public final class GameWorldTeardown {
+    public static final int TIMEOUT_TICKS = 20 * 30;
+
+    private final MinecraftServer server;
+    private final Config config;
+
+    private final ArrayDeque<Entry> queued = new ArrayDeque<>();
+    private final List<Entry> deleting = new ArrayList<>();
+
+    GameWorldTeardown(MinecraftServer server, Config config) {
+        this.server = server;
+        this.config = config;
+    }
+
+    CompletableFuture<Void> submit(Collection<RuntimeWorldHandle> worldHandles) {
+        if (worldHandles.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        var futures = new CompletableFuture<?>[worldHandles.size()];
+        int i = 0;
+        for (var worldHandle : worldHandles) {
+            futures[i++] = this.submit(worldHandle);
+        }
+
+        return CompletableFuture.allOf(futures);
+    }
+
+    CompletableFuture<Void> submit(RuntimeWorldHandle worldHandle) {
+        worldHandle.setTickWhenEmpty(false);
+
+        var entry = new Entry(worldHandle);
+        this.queued.add(entry);
+        return entry.future;
+    }
+
+    void tick() {
+        this.deleting.removeIf(this::tryComplete);
+
+        int started = 0;
+        while (started < this.config.maxWorldsPerTick() && this.deleting.size() < this.config.maxConcurrentDeletions()) {
+            var entry = this.queued.poll();
+            if (entry == null) {
+                break;
+            }
+
+            this.startDeleting(entry);
+            started++;
+        }
+    }
+
+    /**
+     * @return the number of worlds that are waiting to be or are being unloaded and deleted
+     */
+    public int getPendingCount() {
+        return this.queued.size() + this.deleting.size();
+    }
+
+    void close() {
+        Entry entry;
+        while ((entry = this.queued.poll()) != null) {
+            entry.worldHandle.delete();
+            entry.future.complete(null);
+        }
+
+        for (var deleting : this.deleting) {
+            deleting.future.complete(null);
+        }
+        this.deleting.clear();
+    }
+
+    private void startDeleting(Entry entry) {
+        entry.startTick = this.server.getTicks();
+        try {
+            entry.worldHandle.delete();
+            this.deleting.add(entry);
+        } catch (Throwable throwable) {
+            Plasmid.LOGGER.error("Failed to delete game space world {}", entry.dimension.getValue(), throwable);
+            entry.future.completeExceptionally(throwable);
+        }
+    }
+
+    private boolean tryComplete(Entry entry) {
+        if (this.server.getWorld(entry.dimension) == null) {
+            entry.future.complete(null);
+            return true;
+        }
+
+        if (this.server.getTicks() - entry.startTick > TIMEOUT_TICKS) {
+            Plasmid.LOGGER.warn("Game space world {} was not unloaded after {} ticks", entry.dimension.getValue(), TIMEOUT_TICKS);
+            entry.future.completeExceptionally(new TimeoutException("Game space world " + entry.dimension.getValue() + " was not unloaded"));
+            return true;
+        }
+
+        return false;
+    }
+
+    private static final class Entry {
+        final RuntimeWorldHandle worldHandle;
+        final RegistryKey<World> dimension;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        int startTick;
+
+        Entry(RuntimeWorldHandle worldHandle) {
+            this.worldHandle = worldHandle;
+            this.dimension = worldHandle.asWorld().getRegistryKey();
+        }
+    }
+
+    public record Config(int maxWorldsPerTick, int maxConcurrentDeletions) {
+        public static final Config DEFAULT = new Config(1, 2);
+
+        public static final Codec<Config> CODEC = RecordCodecBuilder.create(instance ->
+                instance.group(
+                        Codec.intRange(1, 64).optionalFieldOf("max_worlds_per_tick", DEFAULT.maxWorldsPerTick).forGetter(Config::maxWorldsPerTick),
+                        Codec.intRange(1, 64).optionalFieldOf("max_concurrent_deletions", DEFAULT.maxConcurrentDeletions).forGetter(Config::maxConcurrentDeletions)
+                ).apply(instance, Config::new)
+        );
+    }
+}
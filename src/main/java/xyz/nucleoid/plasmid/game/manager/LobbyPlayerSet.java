@@ -0,0 +1,118 @@
+package xyz.nucleoid.plasmid.game.manager;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import xyz.nucleoid.plasmid.game.player.PlayerSet;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * A live index of every player present in the player list that is not in any game space.
+ * <p>
+ * Players are stored in a dense array with a {@link UUID} to index lookup, so membership and size queries are O(1)
+ * and removal swaps the last player into the freed slot.
+ */
+final class LobbyPlayerSet implements PlayerSet {
+    private final ArrayList<ServerPlayerEntity> players = new ArrayList<>();
+    private final Object2IntOpenHashMap<UUID> indices = new Object2IntOpenHashMap<>();
+
+    LobbyPlayerSet() {
+        this.indices.defaultReturnValue(-1);
+    }
+
+    void add(ServerPlayerEntity player) {
+        int index = this.indices.getInt(player.getUuid());
+        if (index != -1) {
+            // the entity may have been swapped for a new instance with the same profile
+            this.players.set(index, player);
+            return;
+        }
+
+        this.indices.put(player.getUuid(), this.players.size());
+        this.players.add(player);
+    }
+
+    boolean remove(UUID id) {
+        int index = this.indices.removeInt(id);
+        if (index == -1) {
+            return false;
+        }
+
+        int lastIndex = this.players.size() - 1;
+        var last = this.players.remove(lastIndex);
+        if (index != lastIndex) {
+            this.players.set(index, last);
+            this.indices.put(last.getUuid(), index);
+        }
+
+        return true;
+    }
+
+    void clear() {
+        this.players.clear();
+        this.indices.clear();
+    }
+
+    @Override
+    public boolean contains(UUID id) {
+        return this.indices.containsKey(id);
+    }
+
+    @Override
+    @Nullable
+    public ServerPlayerEntity getEntity(UUID id) {
+        int index = this.indices.getInt(id);
+        return index != -1 ? this.players.get(index) : null;
+    }
+
+    @Override
+    public int size() {
+        return this.players.size();
+    }
+
+    @Override
+    public void forEach(Consumer<? super ServerPlayerEntity> action) {
+        var players = this.players;
+        for (int i = 0; i < players.size(); i++) {
+            action.accept(players.get(i));
+        }
+    }
+
+    @Override
+    public void sendPacket(Packet<?> packet) {
+        var players = this.players;
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).networkHandler.sendPacket(packet);
+        }
+    }
+
+    @Override
+    @NotNull
+    public Iterator<ServerPlayerEntity> iterator() {
+        var players = this.players;
+
+        return new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < players.size();
+            }
+
+            @Override
+            public ServerPlayerEntity next() {
+                if (this.index >= players.size()) {
+                    throw new NoSuchElementException();
+                }
+                return players.get(this.index++);
+            }
+        };
+    }
+}
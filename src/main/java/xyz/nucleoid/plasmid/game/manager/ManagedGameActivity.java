@@ -1,19 +1,22 @@
 package xyz.nucleoid.plasmid.game.manager;
 
-import com.google.common.collect.Iterables;
 import net.minecraft.util.ActionResult;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import xyz.nucleoid.plasmid.Plasmid;
 import xyz.nucleoid.plasmid.game.GameActivity;
 import xyz.nucleoid.plasmid.game.GameResources;
 import xyz.nucleoid.plasmid.game.GameSpace;
+import xyz.nucleoid.plasmid.game.GameTickPriority;
 import xyz.nucleoid.plasmid.game.event.GameEventExceptionHandler;
 import xyz.nucleoid.plasmid.game.event.GameEventListeners;
+import xyz.nucleoid.plasmid.game.event.GameEventProfiler;
 import xyz.nucleoid.plasmid.game.rule.GameRuleMap;
 import xyz.nucleoid.plasmid.game.rule.GameRuleType;
+import xyz.nucleoid.plasmid.util.Scheduler;
 import xyz.nucleoid.stimuli.event.StimulusEvent;
 
-import java.util.Collections;
+import java.util.List;
 
 public final class ManagedGameActivity implements GameActivity {
     private final ManagedGameSpace space;
@@ -21,12 +24,18 @@ public final class ManagedGameActivity implements GameActivity {
     private final GameEventListeners listeners;
     private final GameRuleMap rules = new GameRuleMap();
     private final GameResources resources = new GameResources();
+    private final ActivityDispatchTable dispatchTable;
+    private final Scheduler scheduler;
+    private GameTickPriority tickPriority = GameTickPriority.NORMAL;
 
     ManagedGameActivity(ManagedGameSpace space) {
         this.space = space;
 
         var exceptionHandler = createExceptionHandler(space);
         this.listeners = new GameEventListeners(exceptionHandler);
+        this.listeners.setProfiler(space.getProfiler());
+        this.dispatchTable = new ActivityDispatchTable(this.listeners, this.rules);
+        this.scheduler = this.resources.add(Scheduler.create(space.getServer()));
     }
 
     private static GameEventExceptionHandler createExceptionHandler(ManagedGameSpace space) {
@@ -49,12 +58,14 @@ public final class ManagedGameActivity implements GameActivity {
     @Override
     public ManagedGameActivity setRule(GameRuleType rule, ActionResult result) {
         this.rules.set(rule, result);
+        this.dispatchTable.invalidate();
         return this;
     }
 
     @Override
     public <T> ManagedGameActivity listen(StimulusEvent<T> event, T listener) {
         this.listeners.listen(event, listener);
+        this.dispatchTable.invalidate();
         return this;
     }
 
@@ -64,6 +75,21 @@ public final class ManagedGameActivity implements GameActivity {
         return this;
     }
 
+    @Override
+    public ManagedGameActivity setTickPriority(GameTickPriority priority) {
+        this.tickPriority = priority;
+        return this;
+    }
+
+    @Override
+    public Scheduler getScheduler() {
+        return this.scheduler;
+    }
+
+    public GameTickPriority getTickPriority() {
+        return this.tickPriority;
+    }
+
     @Override
     @NotNull
     public <T> T invoker(StimulusEvent<T> event) {
@@ -78,19 +104,8 @@ public final class ManagedGameActivity implements GameActivity {
 
     @Override
     @NotNull
-    public <T> Iterable<T> getInvokers(StimulusEvent<T> event) {
-        var eventInvokers = this.listeners.getInvokersOrNull(event);
-        var ruleInvokers = this.rules.getInvokersOrNull(event);
-
-        if (eventInvokers != null && ruleInvokers != null) {
-            return Iterables.concat(eventInvokers, ruleInvokers);
-        } else if (ruleInvokers != null) {
-            return ruleInvokers;
-        } else if (eventInvokers != null) {
-            return eventInvokers;
-        } else {
-            return Collections.emptyList();
-        }
+    public <T> List<T> getInvokers(StimulusEvent<T> event) {
+        return this.dispatchTable.get(event);
     }
 
     @Override
@@ -99,6 +114,10 @@ public final class ManagedGameActivity implements GameActivity {
         return this.rules.test(rule);
     }
 
+    void setProfiler(@Nullable GameEventProfiler profiler) {
+        this.listeners.setProfiler(profiler);
+    }
+
     public void onDestroy() {
         this.resources.close();
     }
@@ -1,25 +1,36 @@
 package xyz.nucleoid.plasmid.game.manager;
 
 import com.google.common.collect.Lists;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
 import xyz.nucleoid.fantasy.RuntimeWorldHandle;
 import xyz.nucleoid.plasmid.Plasmid;
+import xyz.nucleoid.plasmid.PlasmidMetrics;
 import xyz.nucleoid.plasmid.event.GameEvents;
 import xyz.nucleoid.plasmid.game.*;
 import xyz.nucleoid.plasmid.game.event.GameActivityEvents;
+import xyz.nucleoid.plasmid.game.event.GameEventProfiler;
 import xyz.nucleoid.plasmid.game.event.GamePlayerEvents;
 import xyz.nucleoid.plasmid.game.player.PlayerOffer;
 import xyz.nucleoid.plasmid.game.player.PlayerOfferResult;
 import xyz.nucleoid.plasmid.game.resource_packs.ResourcePackStates;
+import xyz.nucleoid.plasmid.util.Scheduler;
+import xyz.nucleoid.stimuli.event.StimulusEvent;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 public final class ManagedGameSpace implements GameSpace {
@@ -39,6 +50,21 @@ public final class ManagedGameSpace implements GameSpace {
     private final ResourcePackStates resourcePackStateManager = new ResourcePackStates(this);
     private boolean closed;
 
+    private boolean hibernating;
+    private int idleSince = -1;
+    private final Map<RegistryKey<World>, LongSet> releasedForcedChunks = new Reference2ObjectOpenHashMap<>();
+
+    private final CompletableFuture<Void> teardownFuture = new CompletableFuture<>();
+
+    private final Scheduler scheduler;
+    private long schedulerNanos;
+
+    private final GameSpaceInbox inbox;
+
+    private final GameSpaceTickScheduler.Stats tickStats = new GameSpaceTickScheduler.Stats();
+    @Nullable
+    private GameEventProfiler profiler;
+
     private final GameSpaceStatistics statistics = new GameSpaceStatistics();
     private final Map<String, Object> attachments = new HashMap<>();
 
@@ -52,6 +78,8 @@ public final class ManagedGameSpace implements GameSpace {
         this.worlds = new ManagedGameSpaceWorlds(this);
 
         this.openTime = server.getOverworld().getTime();
+        this.scheduler = Scheduler.create(server);
+        this.inbox = new GameSpaceInbox(manager.getInboxConfig());
     }
 
     @Override
@@ -104,10 +132,15 @@ public final class ManagedGameSpace implements GameSpace {
         }
 
         this.closed = true;
+        this.inbox.close();
+        this.scheduler.close();
+        this.hibernating = false;
+        this.releasedForcedChunks.clear();
 
         var players = Lists.newArrayList(this.players);
 
         Plasmid.LOGGER.info("Game space {} (source: {}) closing for reason {}", this.metadata.id(), this.metadata.sourceConfig().source(), reason);
+        PlasmidMetrics.INSTANCE.onGameClosed(reason);
         GameEvents.CLOSING.invoker().onGameSpaceClosing(this, reason);
         this.lifecycle.onClosing(this, reason);
 
@@ -129,7 +162,13 @@ public final class ManagedGameSpace implements GameSpace {
             }
 
             this.players.clear();
-            this.worlds.clear();
+            this.worlds.clear().whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    this.teardownFuture.completeExceptionally(throwable);
+                } else {
+                    this.teardownFuture.complete(null);
+                }
+            });
 
             this.manager.removeGameSpace(this);
 
@@ -192,11 +231,201 @@ public final class ManagedGameSpace implements GameSpace {
         }
     }
 
+    /**
+     * @return a future that completes once this game space has closed and all of its worlds have been unloaded and
+     * deleted, or exceptionally if a world could not be deleted or was not unloaded in time
+     */
+    public CompletableFuture<Void> getTeardownFuture() {
+        return this.teardownFuture;
+    }
+
+    /**
+     * @return whether this game space is hibernating, in which case its worlds and tick listeners are not being ticked
+     * @see GameSpaceHibernation
+     */
+    public boolean isHibernating() {
+        return this.hibernating;
+    }
+
+    /**
+     * Wakes this game space from hibernation, restoring its worlds' force-loaded chunks and resuming ticking.
+     * If this game space is not hibernating, only its idle time is reset.
+     */
+    public void wake() {
+        this.idleSince = -1;
+        if (!this.hibernating) {
+            return;
+        }
+
+        this.hibernating = false;
+        this.manager.invalidateSnapshot();
+
+        for (var world : this.worlds) {
+            var forcedChunks = this.releasedForcedChunks.remove(world.getRegistryKey());
+            if (forcedChunks != null) {
+                var iterator = forcedChunks.iterator();
+                while (iterator.hasNext()) {
+                    long pos = iterator.nextLong();
+                    world.setChunkForced(ChunkPos.getPackedX(pos), ChunkPos.getPackedZ(pos), true);
+                }
+            }
+        }
+        this.releasedForcedChunks.clear();
+
+        Plasmid.LOGGER.debug("Game space {} woke from hibernation", this.metadata.id());
+    }
+
+    void hibernate() {
+        if (this.hibernating || this.closed) {
+            return;
+        }
+
+        this.hibernating = true;
+        this.manager.invalidateSnapshot();
+
+        for (var world : this.worlds) {
+            var forcedChunks = new LongOpenHashSet(world.getForcedChunks());
+            if (!forcedChunks.isEmpty()) {
+                this.releasedForcedChunks.put(world.getRegistryKey(), forcedChunks);
+
+                var iterator = forcedChunks.iterator();
+                while (iterator.hasNext()) {
+                    long pos = iterator.nextLong();
+                    world.setChunkForced(ChunkPos.getPackedX(pos), ChunkPos.getPackedZ(pos), false);
+                }
+            }
+        }
+
+        Plasmid.LOGGER.debug("Game space {} is hibernating", this.metadata.id());
+    }
+
+    int getIdleSince(int time) {
+        if (this.idleSince < 0) {
+            this.idleSince = time;
+        }
+        return this.idleSince;
+    }
+
+    GameSpaceManager getManager() {
+        return this.manager;
+    }
+
+    @Override
+    public Scheduler getScheduler() {
+        return this.scheduler;
+    }
+
+    @Override
+    public boolean post(Runnable command) {
+        return this.inbox.post(command);
+    }
+
+    void drainInbox() {
+        this.inbox.drain(this);
+    }
+
+    /**
+     * @return the number of commands posted to this game space that are waiting to run
+     */
+    public int getInboxSize() {
+        return this.inbox.size();
+    }
+
+    void tickSchedulers() {
+        long start = System.nanoTime();
+
+        this.scheduler.tick(this.server);
+
+        var activity = this.state.getActivity();
+        if (activity != null) {
+            activity.getScheduler().tick(this.server);
+        }
+
+        this.schedulerNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * @return the number of tasks waiting to run in the schedulers of this game space and its current activity
+     */
+    public int getScheduledTaskCount() {
+        int count = this.scheduler.getQueuedTaskCount();
+
+        var activity = this.state.getActivity();
+        if (activity != null) {
+            count += activity.getScheduler().getQueuedTaskCount();
+        }
+
+        return count;
+    }
+
+    /**
+     * @return the total time spent running scheduled tasks of this game space and its activities
+     */
+    public long getSchedulerNanos() {
+        return this.schedulerNanos;
+    }
+
     public GameBehavior getBehavior() {
         return this.state;
     }
 
+    <T> Iterator<T> selectInvokers(StimulusEvent<T> event) {
+        return this.state.selectInvokers(event);
+    }
+
+    public GameTickPriority getTickPriority() {
+        return this.state.getTickPriority();
+    }
+
+    public GameSpaceTickScheduler.Stats getTickStats() {
+        return this.tickStats;
+    }
+
+    /**
+     * Starts recording per-listener timings for the activities of this game space. While profiling, every listener
+     * is invoked through a timing wrapper; the plain invokers are restored by {@link ManagedGameSpace#stopProfiling()}.
+     *
+     * @return the profiler recording listener timings for this game space
+     */
+    public GameEventProfiler startProfiling() {
+        var profiler = this.profiler;
+        if (profiler == null) {
+            this.profiler = profiler = new GameEventProfiler();
+            this.applyProfiler(profiler);
+        }
+        return profiler;
+    }
+
+    /**
+     * Stops recording per-listener timings for this game space.
+     *
+     * @return the profiler that was recording, or {@code null} if this game space was not being profiled
+     */
+    @Nullable
+    public GameEventProfiler stopProfiling() {
+        var profiler = this.profiler;
+        if (profiler != null) {
+            this.profiler = null;
+            this.applyProfiler(null);
+        }
+        return profiler;
+    }
+
+    @Nullable
+    public GameEventProfiler getProfiler() {
+        return this.profiler;
+    }
+
+    private void applyProfiler(@Nullable GameEventProfiler profiler) {
+        var activity = this.state.getActivity();
+        if (activity != null) {
+            activity.setProfiler(profiler);
+        }
+    }
+
     GameResult screenJoins(Collection<ServerPlayerEntity> players) {
+        this.wake();
+
         var result = this.attemptScreenJoins(players);
 
         if (result.isError()) {
@@ -215,6 +444,8 @@ public final class ManagedGameSpace implements GameSpace {
     }
 
     PlayerOfferResult offerPlayer(PlayerOffer offer) {
+        this.wake();
+
         if (this.closed) {
             return offer.reject(GameTexts.Join.gameClosed());
         } else if (this.manager.inGame(offer.player())) {
@@ -6,6 +6,7 @@ import org.jetbrains.annotations.Nullable;
 import xyz.nucleoid.plasmid.game.*;
 import xyz.nucleoid.plasmid.game.player.MutablePlayerSet;
 import xyz.nucleoid.plasmid.game.player.PlayerOffer;
+import xyz.nucleoid.plasmid.game.player.PlayerSlotAllocator;
 import xyz.nucleoid.plasmid.game.player.isolation.PlayerManagerAccess;
 
 import java.util.*;
@@ -14,6 +15,7 @@ import java.util.function.BiConsumer;
 public final class ManagedGameSpacePlayers implements GameSpacePlayers {
     private final ManagedGameSpace space;
     final MutablePlayerSet set;
+    private final PlayerSlotAllocator slots = new PlayerSlotAllocator();
     private final Map<UUID, BiConsumer<ServerPlayerEntity, GameSpace>> leaveHandlers = new HashMap<>();
 
     ManagedGameSpacePlayers(ManagedGameSpace space) {
@@ -65,6 +67,7 @@ public final class ManagedGameSpacePlayers implements GameSpacePlayers {
                 context.onApply().run(); //in the default implementation, it removes the player from the world where the player was before joining
                 accept.applyJoin();
                 this.set.add(player);
+                this.slots.acquire(player);
                 this.space.onAddPlayer(player);
                 playerManager.plasmid$AddPlayerAndSendDefaultJoinPacket(player, this, context.sendFirstJoinPacket()); //add the player to the player manager and send the default join packet
                 this.leaveHandlers.put(player.getUuid(), context.leaveHandler());
@@ -92,6 +95,7 @@ public final class ManagedGameSpacePlayers implements GameSpacePlayers {
         if (this.set.contains(player)) {
             this.space.onPlayerRemove(player);
             this.set.remove(player);
+            this.slots.release(player.getUuid());
             this.leaveHandlers.remove(player.getUuid()).accept(player, this.space);
             this.attemptGarbageCollection();
             return true;
@@ -107,6 +111,7 @@ public final class ManagedGameSpacePlayers implements GameSpacePlayers {
         }
         this.space.onPlayerRemove(player);
         this.set.remove(player);
+        this.slots.release(player.getUuid());
         var handler = this.leaveHandlers.remove(player.getUuid());
         this.attemptGarbageCollection();
 
@@ -115,9 +120,15 @@ public final class ManagedGameSpacePlayers implements GameSpacePlayers {
 
     void clear() {
         this.set.clear();
+        this.slots.clear();
         this.leaveHandlers.clear();
     }
 
+    @Override
+    public PlayerSlotAllocator getSlots() {
+        return this.slots;
+    }
+
     @Override
     public boolean contains(UUID id) {
         return this.set.contains(id);
@@ -15,6 +15,7 @@ import xyz.nucleoid.plasmid.game.world.GameSpaceWorlds;
 
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public final class ManagedGameSpaceWorlds implements GameSpaceWorlds {
     private final ManagedGameSpace space;
@@ -43,18 +44,17 @@ public final class ManagedGameSpaceWorlds implements GameSpaceWorlds {
         var worldHandle = this.worlds.remove(dimension);
         if (worldHandle != null) {
             this.space.onRemoveWorld(dimension);
-            worldHandle.delete();
+            this.space.getManager().getWorldTeardown().submit(worldHandle);
             return true;
         } else {
             return false;
         }
     }
 
-    void clear() {
-        for (var worldHandler : this.worlds.values()) {
-            worldHandler.delete();
-        }
+    CompletableFuture<Void> clear() {
+        var teardown = this.space.getManager().getWorldTeardown().submit(this.worlds.values());
         this.worlds.clear();
+        return teardown;
     }
 
     @NotNull
@@ -5,6 +5,7 @@ import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
+import xyz.nucleoid.plasmid.PlasmidMetrics;
 import xyz.nucleoid.plasmid.event.GameEvents;
 import xyz.nucleoid.plasmid.game.GameOpenException;
 import xyz.nucleoid.plasmid.game.GameSpace;
@@ -15,6 +16,7 @@ import xyz.nucleoid.plasmid.game.player.isolation.PlayerManagerAccess;
 import xyz.nucleoid.plasmid.mixin.game.space.PlayerEntityAccessor;
 import xyz.nucleoid.plasmid.mixin.game.space.ServerPlayerEntityAccessor;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
@@ -26,11 +28,19 @@ import java.util.Set;
  */
 public final class GamePlayerJoiner {
     public static Results tryJoin(ServerPlayerEntity player, GameSpace gameSpace) {
+        long start = System.nanoTime();
+        long allocatedStart = PlasmidMetrics.getThreadAllocatedBytes();
         try {
             var players = collectPlayersForJoin(player, gameSpace);
-            return tryJoinAll(players, gameSpace);
+            // a party joins together, or those of its members that joined from the lobby are returned there
+            return tryJoinAll(players, gameSpace, players.size() > 1);
         } catch (Throwable throwable) {
             return handleJoinException(throwable);
+        } finally {
+            PlasmidMetrics.INSTANCE.recordJoinLatency(System.nanoTime() - start);
+            if (allocatedStart >= 0) {
+                PlasmidMetrics.INSTANCE.recordJoinAllocation(PlasmidMetrics.getThreadAllocatedBytes() - allocatedStart);
+            }
         }
     }
 
@@ -43,7 +53,22 @@ public final class GamePlayerJoiner {
         return players;
     }
 
-    private static Results tryJoinAll(Collection<ServerPlayerEntity> players, GameSpace gameSpace) {
+    /**
+     * Screens and offers a group of players to the given {@link GameSpace} together.
+     * <p>
+     * The entries of the whole group are sent to the players of the game space in one player list packet each before
+     * anyone joins, entries of the players in the group are kept for each other rather than removed and sent again, and
+     * the entries that each player can no longer see are removed together once the whole group has joined. Each player
+     * is therefore sent a constant number of player list packets regardless of the size of the group.
+     *
+     * @param players the players to join
+     * @param gameSpace the game space to join
+     * @param atomic whether the players that joined from outside any game space should be removed again if any player
+     * fails to join. Players that came from another game space have already left it and cannot be returned, so they
+     * stay in the given game space rather than being sent to the lobby
+     * @return the results of joining
+     */
+    public static Results tryJoinAll(Collection<ServerPlayerEntity> players, GameSpace gameSpace, boolean atomic) {
         var results = new Results();
 
         var screenResult = gameSpace.getPlayers().screenJoins(players);
@@ -52,13 +77,36 @@ public final class GamePlayerJoiner {
             return results;
         }
 
-        for (var player : players) {
-            var context = getContext(player, gameSpace);
-            if(context == null) continue;
-            var result = gameSpace.getPlayers().offer( context );
-            if (result.isError()) {
-                results.playerErrors.put(player, result.error());
+        var playerManager = (PlayerManagerAccess) gameSpace.getServer().getPlayerManager();
+        playerManager.plasmid$beginPlayerListBatch();
+        try {
+            playerManager.plasmid$announcePlayerListGroup(players, gameSpace.getPlayers());
+
+            // only players that joined from the lobby can be put back where they were
+            var joinedFromLobby = new ArrayList<ServerPlayerEntity>(players.size());
+            for (var player : players) {
+                boolean fromLobby = !GameSpaceManager.get().inGame(player);
+                var context = getContext(player, gameSpace);
+                if(context == null) continue;
+                var result = gameSpace.getPlayers().offer( context );
+                if (result.isError()) {
+                    results.playerErrors.put(player, result.error());
+                    playerManager.plasmid$getGamePlayerPool().release(context.player());
+                    if (atomic) {
+                        break;
+                    }
+                } else if (fromLobby) {
+                    joinedFromLobby.add(context.player());
+                }
             }
+
+            if (atomic && !results.playerErrors.isEmpty()) {
+                for (var player : joinedFromLobby) {
+                    gameSpace.getPlayers().kick(player);
+                }
+            }
+        } finally {
+            playerManager.plasmid$endPlayerListBatch();
         }
 
         return results;
@@ -66,14 +114,16 @@ public final class GamePlayerJoiner {
 
     public static GameSpacePlayers.OfferContext getContext(ServerPlayerEntity actualPlayer, GameSpace targetGameSpace) {
         var MODEL_PARTS = PlayerEntityAccessor.playerModelParts();
-        var newPlayer = new ServerPlayerEntity(actualPlayer.server, targetGameSpace.getWorlds().iterator().next(), actualPlayer.getGameProfile());
         var playerManager = (PlayerManagerAccess) Objects.requireNonNull(actualPlayer.getServer()).getPlayerManager();
 
         var oldGameSpace = GameSpaceManager.get().byPlayer(actualPlayer);
-
         if (oldGameSpace == targetGameSpace)
             return null; //return null if the player is already in the game space
-        else if(oldGameSpace == null)
+
+        var pool = playerManager.plasmid$getGamePlayerPool();
+        var newPlayer = pool.acquire(actualPlayer, targetGameSpace.getWorlds().iterator().next()); //reuse the entity the player last left a game with, if possible
+
+        if(oldGameSpace == null)
             return new GameSpacePlayers.OfferContext(newPlayer,
                 () -> { //executed when the player joins the game space
                     playerManager.plasmid$savePlayerData(actualPlayer); //save the player data
@@ -103,6 +153,7 @@ public final class GamePlayerJoiner {
                     actualPlayer.getDataTracker().set(MODEL_PARTS, oldPlayer.getDataTracker().get(MODEL_PARTS), true); //copy skin layers, true to make it dirty and force a sync
 
                     playerManager.plasmid$AddPlayerAndSendDefaultJoinPacket(actualPlayer, GameSpaceManager.get().getPlayersNotInGame(), false);
+                    pool.release(oldPlayer); //keep the old player to be reused on the next join
             });
 
         else //the player where in another game space
@@ -110,6 +161,7 @@ public final class GamePlayerJoiner {
             return new GameSpacePlayers.OfferContext(newPlayer,
                 () -> { //executed when the player joins the game space
                     playerManager.plasmid$removePlayer(actualPlayer, oldGameSpace.getPlayers());
+                    pool.release(actualPlayer); //keep the player from the other game space to be reused on the next join
                     //no save since the player comes from another game space
                     var handler = actualPlayer.networkHandler;
                     handler.player = newPlayer; //change the player in the network handler
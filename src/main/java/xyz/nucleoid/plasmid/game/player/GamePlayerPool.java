@@ -0,0 +1,168 @@
+package xyz.nucleoid.plasmid.game.player;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.minecraft.entity.EntityPose;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.World;
+import xyz.nucleoid.plasmid.PlasmidMetrics;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps the player entity that each online player last left a game space with, so that it can be reset and reused the
+ * next time they join a game space rather than constructing a new {@link ServerPlayerEntity} along with its inventory,
+ * screen handler, recipe book and data tracker.
+ * <p>
+ * A reused entity is reset to the state of a newly constructed one: the data written by the entity when it was first
+ * constructed is read back into it, and any state that is not covered by that data is cleared directly. Only entities
+ * that were cleanly detached when they left are kept; entities that left while dead, riding, sleeping, spectating
+ * another entity or with a screen open are discarded.
+ * <p>
+ * Entries are dropped when their player disconnects, since the entity holds on to that connection's statistics and
+ * advancements.
+ * <p>
+ * Pooling is disabled by default, and can be enabled through {@link Config#enabled()}.
+ */
+public final class GamePlayerPool {
+    private final Config config;
+
+    private final Map<UUID, ServerPlayerEntity> idle = new Object2ObjectOpenHashMap<>();
+    private final Map<UUID, NbtCompound> templates = new Object2ObjectOpenHashMap<>();
+
+    public GamePlayerPool(Config config) {
+        this.config = config;
+    }
+
+    /**
+     * Returns a player entity for the given player to join a game space with, placed in the given world. This is
+     * either their reset pooled entity or a newly constructed one.
+     *
+     * @param actualPlayer the player that is joining
+     * @param world the world to place the entity in
+     * @return a player entity that is not in any world or in the player list
+     */
+    public ServerPlayerEntity acquire(ServerPlayerEntity actualPlayer, ServerWorld world) {
+        var id = actualPlayer.getUuid();
+
+        var player = this.idle.remove(id);
+        var template = this.templates.get(id);
+        if (player != null && template != null) {
+            player.setServerWorld(world);
+            reset(player, template);
+            PlasmidMetrics.INSTANCE.onGamePlayerAcquired(true);
+            return player;
+        }
+
+        player = new ServerPlayerEntity(actualPlayer.server, world, actualPlayer.getGameProfile());
+        if (this.config.enabled()) {
+            this.templates.put(id, player.writeNbt(new NbtCompound()));
+        }
+        PlasmidMetrics.INSTANCE.onGamePlayerAcquired(false);
+        return player;
+    }
+
+    /**
+     * Returns a player entity that has left its game space to this pool, if it can be safely reused.
+     *
+     * @param player the player entity, which must not be in any world or in the player list
+     */
+    public void release(ServerPlayerEntity player) {
+        var id = player.getUuid();
+        if (!this.config.enabled() || !this.templates.containsKey(id) || this.idle.containsKey(id)) {
+            return;
+        }
+
+        if (!this.canReuse(player)) {
+            return;
+        }
+
+        // let go of anything that would keep the game space's world loaded
+        // the damage tracker only forgets its records once they time out, which keeps their attackers reachable
+        player.getDamageTracker().recentDamage.clear();
+        player.lastDamageSource = null;
+        player.setAttacker(null);
+        player.setAttacking(null);
+        player.onAttacking(null);
+        player.fishHook = null;
+        player.setServerWorld(player.server.getOverworld());
+
+        this.idle.put(id, player);
+    }
+
+    /**
+     * Drops any pooled entity for the given player, such as when they disconnect.
+     *
+     * @param id the UUID of the player
+     */
+    public void remove(UUID id) {
+        this.idle.remove(id);
+        this.templates.remove(id);
+    }
+
+    private boolean canReuse(ServerPlayerEntity player) {
+        return player.getServerWorld().getEntity(player.getUuid()) != player
+                && player.getHealth() > 0.0F
+                && !player.hasVehicle()
+                && !player.hasPassengers()
+                && !player.isSleeping()
+                && player.getCameraEntity() == player
+                && player.currentScreenHandler == player.playerScreenHandler
+                && !player.server.getPlayerManager().getPlayerList().contains(player);
+    }
+
+    private static void reset(ServerPlayerEntity player, NbtCompound template) {
+        player.unsetRemoved();
+
+        // state that is not written to the entity's data, or only read back when present
+        player.getActiveStatusEffects().clear();
+        player.clearPotionSwirls();
+        player.getAttributes().custom.clear();
+        player.getAttributes().tracked.clear();
+        player.getItemCooldownManager().entries.clear();
+        player.getRecipeBook().recipes.clear();
+        player.getRecipeBook().toBeDisplayed.clear();
+        player.getCommandTags().clear();
+
+        player.playerScreenHandler.setCursorStack(ItemStack.EMPTY);
+        player.playerScreenHandler.getCraftingInput().clear();
+
+        player.setCustomName(null);
+        player.setInvisible(false);
+        player.setSneaking(false);
+        player.setSprinting(false);
+        player.setSwimming(false);
+        player.setPose(EntityPose.STANDING);
+        player.setStuckArrowCount(0);
+        player.setStingerCount(0);
+        player.setSpawnPoint(World.OVERWORLD, null, 0.0F, false, false);
+        player.setLastDeathPos(Optional.empty());
+
+        player.hurtTime = 0;
+        player.maxHurtTime = 0;
+        player.timeUntilRegen = 0;
+        player.lastDamageTaken = 0.0F;
+
+        player.readNbt(template);
+        player.markHealthDirty();
+
+        // the advancement tracker takes the most recently created entity as its owner
+        player.server.getPlayerManager().getAdvancementTracker(player);
+    }
+
+    public record Config(boolean enabled) {
+        public static final Config DEFAULT = new Config(false);
+
+        public static final Codec<Config> CODEC = RecordCodecBuilder.create(instance ->
+                instance.group(
+                        Codec.BOOL.optionalFieldOf("enabled", DEFAULT.enabled).forGetter(Config::enabled)
+                ).apply(instance, Config::new)
+        );
+    }
+}
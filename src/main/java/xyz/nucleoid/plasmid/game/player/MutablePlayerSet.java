@@ -1,77 +1,162 @@
 package xyz.nucleoid.plasmid.game.player;
 
-import com.google.common.collect.AbstractIterator;
-import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.network.packet.Packet;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import xyz.nucleoid.plasmid.game.player.isolation.PlayerManagerAccess;
 import xyz.nucleoid.plasmid.util.PlayerRef;
 
+import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.Set;
+import java.util.NoSuchElementException;
 import java.util.UUID;
-
+import java.util.function.Consumer;
+
+/**
+ * A mutable {@link PlayerSet} that may also contain offline players.
+ * <p>
+ * Players are held through the {@link PlayerSlots} of the server in a dense array with a {@link UUID} to index lookup,
+ * so that iterating and looking up online players reaches their current entity directly, even as they disconnect,
+ * reconnect or have their entity swapped.
+ */
 public final class MutablePlayerSet implements PlayerSet {
-    private final MinecraftServer server;
+    private final PlayerSlots slots;
 
-    private final Set<UUID> players = new ObjectOpenHashSet<>();
+    private final ArrayList<PlayerSlots.Slot> players = new ArrayList<>();
+    private final Object2IntOpenHashMap<UUID> indices = new Object2IntOpenHashMap<>();
 
     public MutablePlayerSet(MinecraftServer server) {
-        this.server = server;
+        this.slots = ((PlayerManagerAccess) server.getPlayerManager()).plasmid$getPlayerSlots();
+        this.indices.defaultReturnValue(-1);
     }
 
     public void clear() {
         this.players.clear();
+        this.indices.clear();
     }
 
     public boolean add(ServerPlayerEntity player) {
-        return this.players.add(player.getUuid());
+        var slot = this.add(player.getUuid());
+        if (slot == null) {
+            return false;
+        }
+
+        // the entity may be added before it enters the player list, such as while joining a game space
+        if (slot.entity == null && !player.isDisconnected()) {
+            slot.entity = player;
+        }
+
+        return true;
     }
 
     public boolean add(PlayerRef ref) {
-        return this.players.add(ref.id());
+        return this.add(ref.id()) != null;
+    }
+
+    @Nullable
+    private PlayerSlots.Slot add(UUID id) {
+        if (this.indices.containsKey(id)) {
+            return null;
+        }
+
+        var slot = this.slots.get(id);
+        this.indices.put(id, this.players.size());
+        this.players.add(slot);
+        return slot;
     }
 
     public boolean remove(ServerPlayerEntity player) {
-        return this.players.remove(player.getUuid());
+        return this.remove(player.getUuid());
     }
 
     public boolean remove(PlayerRef ref) {
-        return this.players.remove(ref.id());
+        return this.remove(ref.id());
     }
 
     public boolean remove(UUID id) {
-        return this.players.remove(id);
+        int index = this.indices.removeInt(id);
+        if (index == -1) {
+            return false;
+        }
+
+        int lastIndex = this.players.size() - 1;
+        var last = this.players.remove(lastIndex);
+        if (index != lastIndex) {
+            this.players.set(index, last);
+            this.indices.put(last.id, index);
+        }
+
+        return true;
     }
 
     @Nullable
     @Override
     public ServerPlayerEntity getEntity(UUID id) {
-        return this.players.contains(id) ? this.server.getPlayerManager().getPlayer(id) : null;
+        int index = this.indices.getInt(id);
+        return index != -1 ? this.players.get(index).entity : null;
     }
 
     @Override
     public boolean contains(UUID id) {
-        return this.players.contains(id);
+        return this.indices.containsKey(id);
+    }
+
+    @Override
+    public void forEach(Consumer<? super ServerPlayerEntity> action) {
+        var players = this.players;
+        for (int i = 0; i < players.size(); i++) {
+            var player = players.get(i).entity;
+            if (player != null) {
+                action.accept(player);
+            }
+        }
+    }
+
+    @Override
+    public void sendPacket(Packet<?> packet) {
+        var players = this.players;
+        for (int i = 0; i < players.size(); i++) {
+            var player = players.get(i).entity;
+            if (player != null) {
+                player.networkHandler.sendPacket(packet);
+            }
+        }
     }
 
     @Override
     public @NotNull Iterator<ServerPlayerEntity> iterator() {
-        var playerManager = this.server.getPlayerManager();
-        var ids = this.players.iterator();
+        var players = this.players;
 
-        return new AbstractIterator<>() {
-            @Override
-            protected ServerPlayerEntity computeNext() {
-                while (ids.hasNext()) {
-                    var id = ids.next();
-                    var player = playerManager.getPlayer(id);
+        return new Iterator<>() {
+            private int index;
+            private ServerPlayerEntity next = this.findNext();
+
+            private ServerPlayerEntity findNext() {
+                while (this.index < players.size()) {
+                    var player = players.get(this.index++).entity;
                     if (player != null) {
                         return player;
                     }
                 }
-                return this.endOfData();
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.next != null;
+            }
+
+            @Override
+            public ServerPlayerEntity next() {
+                var next = this.next;
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                this.next = this.findNext();
+                return next;
             }
         };
     }
@@ -0,0 +1,15 @@
+package xyz.nucleoid.plasmid.game.player;
+
+/**
+ * Implemented by {@link net.minecraft.server.network.ServerPlayNetworkHandler} to collect the packets sent to a player
+ * while a batch is open, so that they can be sent together as a single bundle.
+ *
+ * @see PlayerOps#batch(java.util.function.Consumer)
+ */
+public interface PacketBatchingHandler {
+    void plasmid$beginBatch();
+
+    void plasmid$endBatch();
+
+    boolean plasmid$isBatching();
+}
@@ -0,0 +1,204 @@
+package xyz.nucleoid.plasmid.game.player;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import net.minecraft.network.ClientConnection;
+import net.minecraft.network.NetworkSide;
+import net.minecraft.network.NetworkState;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.packet.BundlePacket;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.jetbrains.annotations.Nullable;
+import xyz.nucleoid.plasmid.Plasmid;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+
+/**
+ * Sends a packet to many players by serializing and compressing it only once, and then writing the resulting bytes
+ * directly to the network channel of every recipient.
+ * <p>
+ * This bypasses any transformation that would otherwise be applied to the packet for each recipient while it is
+ * encoded, such as per-player translation of text or remapping of server-side content. It must therefore only be used
+ * for packets whose contents are the same for every player.
+ * <p>
+ * Players whose connection cannot take pre-encoded packets (such as an integrated server's local connection, a
+ * connection that is not yet in the play state, or a connection with any handler that vanilla does not add, such as
+ * that of a protocol translator) are sent the packet normally, as are players with an open
+ * {@link PlayerOps#batch(java.util.function.Consumer) batch}.
+ *
+ * @see PlayerOps#broadcastPacket(Packet)
+ */
+public final class PacketBroadcast {
+    private static final String ENCODER = "encoder";
+    private static final String COMPRESS = "compress";
+
+    // the handlers of a vanilla server connection, as added by ServerNetworkIo, ClientConnection#addHandlers and when
+    // enabling encryption and compression: any other handler may need to see or rewrite each packet
+    private static final Set<String> VANILLA_HANDLERS = Set.of(
+            "timeout", "legacy_query", "splitter", "decoder", "prepender", ENCODER, "bundler", "unbundler",
+            "packet_handler", "decrypt", "encrypt", "decompress", COMPRESS
+    );
+
+    private static final Set<String> REPORTED_HANDLERS = ConcurrentHashMap.newKeySet();
+
+    private static final int MIN_RECIPIENTS = 2;
+
+    private PacketBroadcast() {
+    }
+
+    public static void send(Packet<?> packet, Iterable<ServerPlayerEntity> players) {
+        if (packet instanceof BundlePacket<?>) {
+            // bundles are split into their delimited parts by the connection pipeline
+            sendEach(packet, players);
+            return;
+        }
+
+        var recipients = new ArrayList<ServerPlayerEntity>();
+        var channels = new ArrayList<Channel>();
+        for (var player : players) {
+            var channel = getEncodedChannel(player);
+            if (channel != null) {
+                recipients.add(player);
+                channels.add(channel);
+            } else {
+                player.networkHandler.sendPacket(packet);
+            }
+        }
+
+        if (recipients.size() < MIN_RECIPIENTS) {
+            sendEach(packet, recipients);
+            return;
+        }
+
+        ByteBuf encoded;
+        try {
+            encoded = encode(packet);
+        } catch (Throwable throwable) {
+            Plasmid.LOGGER.warn("Failed to encode broadcast packet {}, sending it to each player instead", packet, throwable);
+            sendEach(packet, recipients);
+            return;
+        }
+
+        if (encoded == null) {
+            sendEach(packet, recipients);
+            return;
+        }
+
+        ByteBuf deflated = null;
+        try {
+            for (var channel : channels) {
+                var pipeline = channel.pipeline();
+                if (pipeline.get(COMPRESS) != null) {
+                    if (deflated == null) {
+                        deflated = deflate(encoded, recipients.get(0).server.getNetworkCompressionThreshold());
+                    }
+                    pipeline.context(COMPRESS).writeAndFlush(deflated.retainedDuplicate());
+                } else {
+                    pipeline.context(ENCODER).writeAndFlush(encoded.retainedDuplicate());
+                }
+            }
+        } finally {
+            encoded.release();
+            if (deflated != null) {
+                deflated.release();
+            }
+        }
+    }
+
+    private static void sendEach(Packet<?> packet, Iterable<ServerPlayerEntity> players) {
+        for (var player : players) {
+            player.networkHandler.sendPacket(packet);
+        }
+    }
+
+    @Nullable
+    private static Channel getEncodedChannel(ServerPlayerEntity player) {
+        if (((PacketBatchingHandler) player.networkHandler).plasmid$isBatching()) {
+            // packets must stay in order with the rest of the batch
+            return null;
+        }
+
+        var connection = player.networkHandler.connection;
+        if (!connection.isOpen() || connection.isLocal()) {
+            return null;
+        }
+
+        var channel = connection.channel;
+        if (channel == null || channel.pipeline().get(ENCODER) == null) {
+            return null;
+        }
+
+        if (channel.attr(ClientConnection.PROTOCOL_ATTRIBUTE_KEY).get() != NetworkState.PLAY) {
+            return null;
+        }
+
+        // protocol translators and packet rewriting mods add their own handlers, which pre-encoded bytes would skip
+        // unlike names(), iterating the pipeline does not include its internal head and tail
+        for (var handler : channel.pipeline()) {
+            var name = handler.getKey();
+            if (!VANILLA_HANDLERS.contains(name)) {
+                if (REPORTED_HANDLERS.add(name)) {
+                    Plasmid.LOGGER.info("Broadcast packets will be sent individually to connections with the '{}' handler", name);
+                }
+                return null;
+            }
+        }
+
+        return channel;
+    }
+
+    @Nullable
+    private static ByteBuf encode(Packet<?> packet) {
+        int id = NetworkState.PLAY.getPacketId(NetworkSide.CLIENTBOUND, packet);
+        if (id < 0) {
+            return null;
+        }
+
+        var buf = new PacketByteBuf(Unpooled.buffer());
+        try {
+            buf.writeVarInt(id);
+            packet.write(buf);
+        } catch (Throwable throwable) {
+            buf.release();
+            throw throwable;
+        }
+
+        return buf;
+    }
+
+    private static ByteBuf deflate(ByteBuf encoded, int threshold) {
+        int size = encoded.readableBytes();
+        var out = new PacketByteBuf(Unpooled.buffer(size + 5));
+        if (threshold < 0 || size < threshold) {
+            out.writeVarInt(0);
+            out.writeBytes(encoded, encoded.readerIndex(), size);
+            return out;
+        }
+
+        var input = new byte[size];
+        encoded.getBytes(encoded.readerIndex(), input);
+
+        var deflater = new Deflater();
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+
+            out.writeVarInt(size);
+
+            var buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.writeBytes(buffer, 0, length);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        return out;
+    }
+}
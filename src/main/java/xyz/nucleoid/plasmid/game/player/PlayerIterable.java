@@ -11,8 +11,10 @@ import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvent;
 import net.minecraft.text.Text;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -45,6 +47,29 @@ public interface PlayerIterable extends PlayerOps, Iterable<ServerPlayerEntity>
         }
     }
 
+    @Override
+    default void broadcastPacket(Packet<?> packet) {
+        PacketBroadcast.send(packet, this);
+    }
+
+    @Override
+    default void batch(Consumer<PlayerOps> batch) {
+        var handlers = new ArrayList<PacketBatchingHandler>();
+        for (var player : this) {
+            var handler = (PacketBatchingHandler) player.networkHandler;
+            handler.plasmid$beginBatch();
+            handlers.add(handler);
+        }
+
+        try {
+            batch.accept(this);
+        } finally {
+            for (var handler : handlers) {
+                handler.plasmid$endBatch();
+            }
+        }
+    }
+
     @Override
     default void sendMessage(Text message) {
         for (var player : this) {
@@ -54,15 +79,18 @@ public interface PlayerIterable extends PlayerOps, Iterable<ServerPlayerEntity>
 
     @Override
     default void showTitle(Text title, int fadeInTicks, int stayTicks, int fadeOutTicks) {
-        this.sendPacket(new TitleFadeS2CPacket(fadeInTicks, stayTicks, fadeOutTicks));
-        this.sendPacket(new TitleS2CPacket(title));
+        // the fade is the same for every player, so it is broadcast before the batch is opened
+        this.broadcastPacket(new TitleFadeS2CPacket(fadeInTicks, stayTicks, fadeOutTicks));
+        this.batch(players -> players.sendPacket(new TitleS2CPacket(title)));
     }
 
     @Override
     default void showTitle(Text title, Text subtitle, int fadeInTicks, int stayTicks, int fadeOutTicks) {
-        this.sendPacket(new TitleFadeS2CPacket(fadeInTicks, stayTicks, fadeOutTicks));
-        this.sendPacket(new TitleS2CPacket(title));
-        this.sendPacket(new SubtitleS2CPacket(subtitle));
+        this.broadcastPacket(new TitleFadeS2CPacket(fadeInTicks, stayTicks, fadeOutTicks));
+        this.batch(players -> {
+            players.sendPacket(new TitleS2CPacket(title));
+            players.sendPacket(new SubtitleS2CPacket(subtitle));
+        });
     }
 
     @Override
@@ -74,7 +102,7 @@ public interface PlayerIterable extends PlayerOps, Iterable<ServerPlayerEntity>
 
     @Override
     default void sendActionBar(Text message, int fadeInTicks, int stayTicks, int fadeOutTicks) {
-        this.sendPacket(new TitleFadeS2CPacket(fadeInTicks, stayTicks, fadeOutTicks));
+        this.broadcastPacket(new TitleFadeS2CPacket(fadeInTicks, stayTicks, fadeOutTicks));
         this.sendPacket(new OverlayMessageS2CPacket(message));
     }
 
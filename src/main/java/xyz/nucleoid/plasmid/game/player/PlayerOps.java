@@ -6,6 +6,8 @@ import net.minecraft.sound.SoundCategory;
 import net.minecraft.sound.SoundEvent;
 import net.minecraft.text.Text;
 
+import java.util.function.Consumer;
+
 /**
  * A utility interface that allows various operations to be applied to a group of players such as sending a message,
  * packet, or sound.
@@ -20,6 +22,32 @@ public interface PlayerOps {
      */
     void sendPacket(Packet<?> packet);
 
+    /**
+     * Sends a packet to all players associated with this {@link PlayerOps}, serializing and compressing it only once
+     * for all of them where possible.
+     * <p>
+     * The packet bypasses any per-player transformation while being encoded, so this must only be used for packets
+     * whose contents are the same for every player, such as those without text, items or blocks.
+     *
+     * @param packet the packet to send
+     * @see PacketBroadcast
+     */
+    default void broadcastPacket(Packet<?> packet) {
+        this.sendPacket(packet);
+    }
+
+    /**
+     * Runs the given operations while collecting the packets sent to each player associated with this
+     * {@link PlayerOps}, and then sends each player's packets together as a single bundle.
+     * <p>
+     * Packets sent to these players by anything else during the batch are collected as well.
+     *
+     * @param batch the operations to run, given this {@link PlayerOps}
+     */
+    default void batch(Consumer<PlayerOps> batch) {
+        batch.accept(this);
+    }
+
     /**
      * Sends a chat message to all players associated with this {@link PlayerOps}.
      *
@@ -0,0 +1,158 @@
+package xyz.nucleoid.plasmid.game.player;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Assigns each player in a game space a small integer slot for as long as they remain within it. Slots are reused once
+ * their player leaves, always taking the lowest free slot, so that they stay dense.
+ * <p>
+ * Slots index {@link SlotPlayerSet bitset player sets} and {@link PlayerSlotIntArray primitive per-player arrays}
+ * created from this allocator. When a player leaves, their slot is cleared in every such structure before it is
+ * reused.
+ * <p>
+ * Slots are acquired and released by the game space as players join and leave; games should only read them.
+ *
+ * @see xyz.nucleoid.plasmid.game.GameSpacePlayers#getSlots()
+ */
+public final class PlayerSlotAllocator {
+    private final Object2IntOpenHashMap<UUID> slots = new Object2IntOpenHashMap<>();
+    private final BitSet used = new BitSet();
+    private ServerPlayerEntity[] players = new ServerPlayerEntity[16];
+
+    private final List<WeakReference<SlotStorage>> storages = new ArrayList<>();
+
+    public PlayerSlotAllocator() {
+        this.slots.defaultReturnValue(-1);
+    }
+
+    /**
+     * Assigns a slot to the given player, or returns their existing slot.
+     *
+     * @param player the player to assign a slot to
+     * @return the slot of the player
+     */
+    public int acquire(ServerPlayerEntity player) {
+        int slot = this.slots.getInt(player.getUuid());
+        if (slot == -1) {
+            slot = this.used.nextClearBit(0);
+            this.used.set(slot);
+            this.slots.put(player.getUuid(), slot);
+
+            if (slot >= this.players.length) {
+                this.players = Arrays.copyOf(this.players, Math.max(this.players.length * 2, slot + 1));
+            }
+        }
+
+        this.players[slot] = player;
+        return slot;
+    }
+
+    /**
+     * Frees the slot of the given player, clearing it from every structure created from this allocator.
+     *
+     * @param id the id of the player to free
+     * @return whether the player had a slot
+     */
+    public boolean release(UUID id) {
+        int slot = this.slots.removeInt(id);
+        if (slot == -1) {
+            return false;
+        }
+
+        var iterator = this.storages.iterator();
+        while (iterator.hasNext()) {
+            var storage = iterator.next().get();
+            if (storage != null) {
+                storage.clearSlot(slot);
+            } else {
+                iterator.remove();
+            }
+        }
+
+        this.players[slot] = null;
+        this.used.clear(slot);
+        return true;
+    }
+
+    /**
+     * Frees every slot, clearing every structure created from this allocator.
+     */
+    public void clear() {
+        for (var id : new ArrayList<>(this.slots.keySet())) {
+            this.release(id);
+        }
+    }
+
+    /**
+     * @param id the player id to look up
+     * @return the slot of the given player, or {@code -1} if they have none
+     */
+    public int getSlot(UUID id) {
+        return this.slots.getInt(id);
+    }
+
+    /**
+     * @param player the player to look up
+     * @return the slot of the given player, or {@code -1} if they have none
+     */
+    public int getSlot(ServerPlayerEntity player) {
+        return this.slots.getInt(player.getUuid());
+    }
+
+    /**
+     * @param slot the slot to look up
+     * @return the player assigned to the given slot, or {@code null} if it is free
+     */
+    @Nullable
+    public ServerPlayerEntity getPlayer(int slot) {
+        return slot >= 0 && slot < this.players.length ? this.players[slot] : null;
+    }
+
+    /**
+     * @return one more than the highest slot currently assigned
+     */
+    public int getCapacity() {
+        return this.used.length();
+    }
+
+    /**
+     * @return a new empty bitset player set indexed by the slots of this allocator
+     */
+    public SlotPlayerSet createSet() {
+        return this.register(new SlotPlayerSet(this));
+    }
+
+    /**
+     * @param defaultValue the value for players that have not been assigned one
+     * @return a new per-player int array indexed by the slots of this allocator
+     */
+    public PlayerSlotIntArray createIntArray(int defaultValue) {
+        return this.register(new PlayerSlotIntArray(this, defaultValue));
+    }
+
+    /**
+     * @param defaultValue the value for players that have not been assigned one
+     * @return a new per-player double array indexed by the slots of this allocator
+     */
+    public PlayerSlotDoubleArray createDoubleArray(double defaultValue) {
+        return this.register(new PlayerSlotDoubleArray(this, defaultValue));
+    }
+
+    <T extends SlotStorage> T register(T storage) {
+        this.storages.add(new WeakReference<>(storage));
+        return storage;
+    }
+
+    interface SlotStorage {
+        void clearSlot(int slot);
+    }
+}
@@ -0,0 +1,78 @@
+package xyz.nucleoid.plasmid.game.player;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.Arrays;
+
+/**
+ * Holds a double value for each player in a game space, indexed by their {@link PlayerSlotAllocator slot}. The value of
+ * a player is reset to the default when they leave.
+ */
+public final class PlayerSlotDoubleArray implements PlayerSlotAllocator.SlotStorage {
+    private final PlayerSlotAllocator allocator;
+    private final double defaultValue;
+
+    private double[] values = new double[0];
+
+    PlayerSlotDoubleArray(PlayerSlotAllocator allocator, double defaultValue) {
+        this.allocator = allocator;
+        this.defaultValue = defaultValue;
+    }
+
+    public double get(int slot) {
+        return slot >= 0 && slot < this.values.length ? this.values[slot] : this.defaultValue;
+    }
+
+    public double get(ServerPlayerEntity player) {
+        return this.get(this.allocator.getSlot(player));
+    }
+
+    public void set(int slot, double value) {
+        if (slot < 0) {
+            throw new IllegalArgumentException("player is not in this game space");
+        }
+        this.ensureCapacity(slot);
+        this.values[slot] = value;
+    }
+
+    public void set(ServerPlayerEntity player, double value) {
+        this.set(this.allocator.getSlot(player), value);
+    }
+
+    public double add(ServerPlayerEntity player, double amount) {
+        int slot = this.allocator.getSlot(player);
+        double value = this.get(slot) + amount;
+        this.set(slot, value);
+        return value;
+    }
+
+    /**
+     * Sets the value of every player currently in the game space.
+     *
+     * @param value the value to set
+     */
+    public void fill(double value) {
+        int capacity = this.allocator.getCapacity();
+        this.ensureCapacity(capacity - 1);
+        for (int slot = 0; slot < capacity; slot++) {
+            if (this.allocator.getPlayer(slot) != null) {
+                this.values[slot] = value;
+            }
+        }
+    }
+
+    @Override
+    public void clearSlot(int slot) {
+        if (slot < this.values.length) {
+            this.values[slot] = this.defaultValue;
+        }
+    }
+
+    private void ensureCapacity(int slot) {
+        int length = this.values.length;
+        if (slot >= length) {
+            this.values = Arrays.copyOf(this.values, Math.max(slot + 1, length * 2));
+            Arrays.fill(this.values, length, this.values.length, this.defaultValue);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package xyz.nucleoid.plasmid.game.player;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.Arrays;
+
+/**
+ * Holds an int value for each player in a game space, indexed by their {@link PlayerSlotAllocator slot}. The value of
+ * a player is reset to the default when they leave.
+ */
+public final class PlayerSlotIntArray implements PlayerSlotAllocator.SlotStorage {
+    private final PlayerSlotAllocator allocator;
+    private final int defaultValue;
+
+    private int[] values = new int[0];
+
+    PlayerSlotIntArray(PlayerSlotAllocator allocator, int defaultValue) {
+        this.allocator = allocator;
+        this.defaultValue = defaultValue;
+    }
+
+    public int get(int slot) {
+        return slot >= 0 && slot < this.values.length ? this.values[slot] : this.defaultValue;
+    }
+
+    public int get(ServerPlayerEntity player) {
+        return this.get(this.allocator.getSlot(player));
+    }
+
+    public void set(int slot, int value) {
+        if (slot < 0) {
+            throw new IllegalArgumentException("player is not in this game space");
+        }
+        this.ensureCapacity(slot);
+        this.values[slot] = value;
+    }
+
+    public void set(ServerPlayerEntity player, int value) {
+        this.set(this.allocator.getSlot(player), value);
+    }
+
+    public int add(ServerPlayerEntity player, int amount) {
+        int slot = this.allocator.getSlot(player);
+        int value = this.get(slot) + amount;
+        this.set(slot, value);
+        return value;
+    }
+
+    /**
+     * Sets the value of every player currently in the game space.
+     *
+     * @param value the value to set
+     */
+    public void fill(int value) {
+        int capacity = this.allocator.getCapacity();
+        this.ensureCapacity(capacity - 1);
+        for (int slot = 0; slot < capacity; slot++) {
+            if (this.allocator.getPlayer(slot) != null) {
+                this.values[slot] = value;
+            }
+        }
+    }
+
+    @Override
+    public void clearSlot(int slot) {
+        if (slot < this.values.length) {
+            this.values[slot] = this.defaultValue;
+        }
+    }
+
+    private void ensureCapacity(int slot) {
+        int length = this.values.length;
+        if (slot >= length) {
+            this.values = Arrays.copyOf(this.values, Math.max(slot + 1, length * 2));
+            Arrays.fill(this.values, length, this.values.length, this.defaultValue);
+        }
+    }
+}
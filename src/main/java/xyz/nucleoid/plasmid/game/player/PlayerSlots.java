@@ -0,0 +1,78 @@
+package xyz.nucleoid.plasmid.game.player;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tracks the entity currently in the player list for each player referenced by a {@link MutablePlayerSet}.
+ * <p>
+ * Every player has one {@link Slot} that is shared by all sets containing them, and which is updated as the player
+ * connects, disconnects or has their entity swapped when moving between game spaces. Sets can then reach the current
+ * entity through the slot directly rather than looking it up in the player list.
+ * <p>
+ * A slot is only strongly held here while its player is in the player list. Otherwise it is only kept alive by the
+ * sets that contain it, so that sets which are dropped without being cleared do not keep slots around.
+ */
+public final class PlayerSlots {
+    private final Map<UUID, SlotReference> slots = new Object2ObjectOpenHashMap<>();
+    private final Map<UUID, Slot> listed = new Object2ObjectOpenHashMap<>();
+    private final ReferenceQueue<Slot> collected = new ReferenceQueue<>();
+
+    public void onPlayerListAdd(ServerPlayerEntity player) {
+        var slot = this.get(player.getUuid());
+        slot.entity = player;
+        this.listed.put(slot.id, slot);
+    }
+
+    public void onPlayerListRemove(ServerPlayerEntity player) {
+        var slot = this.listed.get(player.getUuid());
+        if (slot != null && slot.entity == player) {
+            slot.entity = null;
+            this.listed.remove(slot.id);
+        }
+    }
+
+    Slot get(UUID id) {
+        this.purge();
+
+        var reference = this.slots.get(id);
+        var slot = reference != null ? reference.get() : null;
+        if (slot == null) {
+            slot = new Slot(id);
+            this.slots.put(id, new SlotReference(slot, this.collected));
+        }
+        return slot;
+    }
+
+    private void purge() {
+        SlotReference reference;
+        while ((reference = (SlotReference) this.collected.poll()) != null) {
+            this.slots.remove(reference.id, reference);
+        }
+    }
+
+    static final class Slot {
+        final UUID id;
+        @Nullable
+        ServerPlayerEntity entity;
+
+        Slot(UUID id) {
+            this.id = id;
+        }
+    }
+
+    private static final class SlotReference extends WeakReference<Slot> {
+        final UUID id;
+
+        SlotReference(Slot slot, ReferenceQueue<Slot> queue) {
+            super(slot, queue);
+            this.id = slot.id;
+        }
+    }
+}
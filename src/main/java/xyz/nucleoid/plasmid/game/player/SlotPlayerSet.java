@@ -0,0 +1,263 @@
+package xyz.nucleoid.plasmid.game.player;
+
+import net.minecraft.network.packet.Packet;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * A mutable {@link PlayerSet} of players within a game space, stored as a bitset over their
+ * {@link PlayerSlotAllocator slots}.
+ * <p>
+ * Union, intersection and difference with other sets from the same game space are word-wise bit operations, which
+ * makes this well suited to sets such as team membership or alive and spectating players. Players are removed from the
+ * set automatically when they leave the game space.
+ */
+public final class SlotPlayerSet implements PlayerSet, PlayerSlotAllocator.SlotStorage {
+    private final PlayerSlotAllocator allocator;
+    private long[] words = new long[1];
+
+    SlotPlayerSet(PlayerSlotAllocator allocator) {
+        this.allocator = allocator;
+    }
+
+    /**
+     * Adds the given player to this set.
+     *
+     * @param player the player to add
+     * @return whether the player was not already in this set
+     * @throws IllegalArgumentException if the player is not in the game space
+     */
+    public boolean add(ServerPlayerEntity player) {
+        int slot = this.allocator.getSlot(player);
+        if (slot < 0) {
+            throw new IllegalArgumentException("player is not in this game space");
+        }
+        return this.setSlot(slot);
+    }
+
+    public boolean remove(ServerPlayerEntity player) {
+        return this.removeSlot(this.allocator.getSlot(player));
+    }
+
+    public boolean remove(UUID id) {
+        return this.removeSlot(this.allocator.getSlot(id));
+    }
+
+    /**
+     * Adds the player assigned to the given slot to this set.
+     *
+     * @param slot the slot of the player to add
+     * @return whether the player was not already in this set
+     * @throws IllegalArgumentException if no player is assigned to the slot
+     */
+    public boolean addSlot(int slot) {
+        if (this.allocator.getPlayer(slot) == null) {
+            throw new IllegalArgumentException("slot " + slot + " is not assigned to a player");
+        }
+        return this.setSlot(slot);
+    }
+
+    private boolean setSlot(int slot) {
+        int index = slot >>> 6;
+        if (index >= this.words.length) {
+            this.words = Arrays.copyOf(this.words, Math.max(index + 1, this.words.length * 2));
+        }
+
+        long mask = 1L << slot;
+        boolean added = (this.words[index] & mask) == 0;
+        this.words[index] |= mask;
+        return added;
+    }
+
+    public boolean removeSlot(int slot) {
+        if (!this.containsSlot(slot)) {
+            return false;
+        }
+        this.words[slot >>> 6] &= ~(1L << slot);
+        return true;
+    }
+
+    public boolean containsSlot(int slot) {
+        int index = slot >>> 6;
+        return slot >= 0 && index < this.words.length && (this.words[index] & (1L << slot)) != 0;
+    }
+
+    public void clear() {
+        Arrays.fill(this.words, 0L);
+    }
+
+    /**
+     * Adds every player from the given set to this set.
+     *
+     * @param other a set from the same game space
+     * @return this set
+     */
+    public SlotPlayerSet union(SlotPlayerSet other) {
+        this.checkCompatible(other);
+        if (other.words.length > this.words.length) {
+            this.words = Arrays.copyOf(this.words, other.words.length);
+        }
+        for (int i = 0; i < other.words.length; i++) {
+            this.words[i] |= other.words[i];
+        }
+        return this;
+    }
+
+    /**
+     * Removes every player from this set that is not in the given set.
+     *
+     * @param other a set from the same game space
+     * @return this set
+     */
+    public SlotPlayerSet intersect(SlotPlayerSet other) {
+        this.checkCompatible(other);
+        int shared = Math.min(this.words.length, other.words.length);
+        for (int i = 0; i < shared; i++) {
+            this.words[i] &= other.words[i];
+        }
+        Arrays.fill(this.words, shared, this.words.length, 0L);
+        return this;
+    }
+
+    /**
+     * Removes every player in the given set from this set.
+     *
+     * @param other a set from the same game space
+     * @return this set
+     */
+    public SlotPlayerSet difference(SlotPlayerSet other) {
+        this.checkCompatible(other);
+        int shared = Math.min(this.words.length, other.words.length);
+        for (int i = 0; i < shared; i++) {
+            this.words[i] &= ~other.words[i];
+        }
+        return this;
+    }
+
+    /**
+     * @return a new set from the same game space containing the same players as this set
+     */
+    public SlotPlayerSet copy() {
+        var copy = this.allocator.register(new SlotPlayerSet(this.allocator));
+        copy.words = this.words.clone();
+        return copy;
+    }
+
+    private void checkCompatible(SlotPlayerSet other) {
+        if (other.allocator != this.allocator) {
+            throw new IllegalArgumentException("sets belong to different game spaces");
+        }
+    }
+
+    @Override
+    public void clearSlot(int slot) {
+        this.removeSlot(slot);
+    }
+
+    @Override
+    public boolean contains(UUID id) {
+        return this.containsSlot(this.allocator.getSlot(id));
+    }
+
+    @Override
+    public boolean contains(ServerPlayerEntity player) {
+        return this.containsSlot(this.allocator.getSlot(player));
+    }
+
+    @Override
+    @Nullable
+    public ServerPlayerEntity getEntity(UUID id) {
+        int slot = this.allocator.getSlot(id);
+        return this.containsSlot(slot) ? this.allocator.getPlayer(slot) : null;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (long word : this.words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (long word : this.words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void forEach(Consumer<? super ServerPlayerEntity> action) {
+        var words = this.words;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                int slot = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+
+                var player = this.allocator.getPlayer(slot);
+                if (player != null) {
+                    action.accept(player);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void sendPacket(Packet<?> packet) {
+        this.forEach(player -> player.networkHandler.sendPacket(packet));
+    }
+
+    @Override
+    @NotNull
+    public Iterator<ServerPlayerEntity> iterator() {
+        return new Iterator<>() {
+            private int slot = this.findNext(0);
+
+            private int findNext(int from) {
+                var words = SlotPlayerSet.this.words;
+                int index = from >>> 6;
+                if (index >= words.length) {
+                    return -1;
+                }
+
+                long word = words[index] & (-1L << from);
+                while (true) {
+                    if (word != 0) {
+                        return (index << 6) + Long.numberOfTrailingZeros(word);
+                    }
+                    if (++index >= words.length) {
+                        return -1;
+                    }
+                    word = words[index];
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.slot != -1;
+            }
+
+            @Override
+            public ServerPlayerEntity next() {
+                int slot = this.slot;
+                if (slot == -1) {
+                    throw new NoSuchElementException();
+                }
+                this.slot = this.findNext(slot + 1);
+                return SlotPlayerSet.this.allocator.getPlayer(slot);
+            }
+        };
+    }
+}
@@ -0,0 +1,149 @@
+package xyz.nucleoid.plasmid.game.player.isolation;
+
+import com.mojang.brigadier.tree.CommandNode;
+import com.mojang.brigadier.tree.RootCommandNode;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.minecraft.command.CommandSource;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.packet.s2c.play.CommandTreeS2CPacket;
+import net.minecraft.network.packet.s2c.play.SynchronizeRecipesS2CPacket;
+import net.minecraft.network.packet.s2c.play.SynchronizeTagsS2CPacket;
+import net.minecraft.registry.CombinedDynamicRegistries;
+import net.minecraft.registry.ServerDynamicRegistryType;
+import net.minecraft.registry.tag.TagPacketSerializer;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Caches the recipe, tag and command tree packets that are sent to players as they join or switch between game spaces,
+ * which otherwise are rebuilt for every player even though they rarely change.
+ * <p>
+ * The command tree last sent to each player is remembered, so that it is only sent again when the tree that the
+ * player can now use differs from it. By default the tree is still built for each player, since command requirements
+ * may check more than the permission level of the player. If every requirement only checks the permission level, the
+ * tree can instead be shared between all players with the same level through {@link Config#shareCommandTrees()}.
+ * <p>
+ * Everything cached is dropped when data packs are reloaded.
+ */
+public final class JoinPacketCache {
+    private final Config config;
+
+    private SynchronizeRecipesS2CPacket recipes;
+    private SynchronizeTagsS2CPacket tags;
+    private final Int2ObjectMap<CommandTree> commandTreesByLevel = new Int2ObjectOpenHashMap<>();
+
+    private final Map<UUID, byte[]> sentCommandTrees = new Object2ObjectOpenHashMap<>();
+
+    public JoinPacketCache(Config config) {
+        this.config = config;
+    }
+
+    public SynchronizeRecipesS2CPacket getRecipes(MinecraftServer server) {
+        var recipes = this.recipes;
+        if (recipes == null) {
+            this.recipes = recipes = new SynchronizeRecipesS2CPacket(server.getRecipeManager().values());
+        }
+        return recipes;
+    }
+
+    public SynchronizeTagsS2CPacket getTags(CombinedDynamicRegistries<ServerDynamicRegistryType> registries) {
+        var tags = this.tags;
+        if (tags == null) {
+            this.tags = tags = new SynchronizeTagsS2CPacket(TagPacketSerializer.serializeTags(registries));
+        }
+        return tags;
+    }
+
+    /**
+     * Sends the command tree that the given player can use, unless it is the same as the last one they were sent.
+     *
+     * @param player the player to send the command tree to
+     */
+    public void sendCommandTree(ServerPlayerEntity player) {
+        var tree = this.getCommandTree(player);
+
+        var sent = this.sentCommandTrees.get(player.getUuid());
+        if (sent != null && Arrays.equals(sent, tree.bytes())) {
+            return;
+        }
+
+        this.sentCommandTrees.put(player.getUuid(), tree.bytes());
+        player.networkHandler.sendPacket(tree.packet());
+    }
+
+    /**
+     * Forgets the command tree last sent to the given player, such as when it is sent by something else.
+     *
+     * @param id the UUID of the player
+     */
+    public void forgetCommandTree(UUID id) {
+        this.sentCommandTrees.remove(id);
+    }
+
+    public void invalidate() {
+        this.recipes = null;
+        this.tags = null;
+        this.commandTreesByLevel.clear();
+    }
+
+    private CommandTree getCommandTree(ServerPlayerEntity player) {
+        if (!this.config.shareCommandTrees()) {
+            return buildCommandTree(player);
+        }
+
+        int level = player.server.getPermissionLevel(player.getGameProfile());
+        var tree = this.commandTreesByLevel.get(level);
+        if (tree == null) {
+            tree = buildCommandTree(player);
+            this.commandTreesByLevel.put(level, tree);
+        }
+        return tree;
+    }
+
+    private static CommandTree buildCommandTree(ServerPlayerEntity player) {
+        // this follows CommandManager#sendCommandTree
+        var commandManager = player.server.getCommandManager();
+        var dispatcherRoot = commandManager.getDispatcher().getRoot();
+
+        var root = new RootCommandNode<CommandSource>();
+        Map<CommandNode<ServerCommandSource>, CommandNode<CommandSource>> nodes = new HashMap<>();
+        nodes.put(dispatcherRoot, root);
+        commandManager.makeTreeForSource(dispatcherRoot, root, player.getCommandSource(), nodes);
+
+        var packet = new CommandTreeS2CPacket(root);
+
+        var buf = new PacketByteBuf(Unpooled.buffer());
+        try {
+            packet.write(buf);
+            var bytes = new byte[buf.readableBytes()];
+            buf.readBytes(bytes);
+            return new CommandTree(packet, bytes);
+        } finally {
+            buf.release();
+        }
+    }
+
+    private record CommandTree(CommandTreeS2CPacket packet, byte[] bytes) {
+    }
+
+    public record Config(boolean shareCommandTrees) {
+        public static final Config DEFAULT = new Config(false);
+
+        public static final Codec<Config> CODEC = RecordCodecBuilder.create(instance ->
+                instance.group(
+                        Codec.BOOL.optionalFieldOf("share_command_trees", DEFAULT.shareCommandTrees).forGetter(Config::shareCommandTrees)
+                ).apply(instance, Config::new)
+        );
+    }
+}
@@ -0,0 +1,106 @@
+package xyz.nucleoid.plasmid.game.player.isolation;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.util.Util;
+import xyz.nucleoid.plasmid.Plasmid;
+
+import java.io.File;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes player data files on a dedicated I/O thread rather than on the server thread.
+ * <p>
+ * The player's NBT is captured on the server thread when a save is requested and written later in the same format as
+ * vanilla. Saves for the same player are written in order, and a save that is requested while an earlier one is still
+ * waiting replaces it, so that only the latest data is written.
+ */
+public final class PlayerDataWriter implements AutoCloseable {
+    private final File directory;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("plasmid-player-data-io")
+                    .setDaemon(true)
+                    .build()
+    );
+
+    private final Map<UUID, NbtCompound> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger queuedWrites = new AtomicInteger();
+
+    public PlayerDataWriter(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Captures the data of the given player and queues it to be written.
+     *
+     * @param player the player to save
+     */
+    public void submit(PlayerEntity player) {
+        var id = player.getUuid();
+        var nbt = player.writeNbt(new NbtCompound());
+
+        if (this.pending.put(id, nbt) == null) {
+            this.queuedWrites.incrementAndGet();
+            try {
+                this.executor.execute(() -> this.write(id));
+            } catch (RejectedExecutionException e) {
+                // the writer has been closed, so fall back to writing on this thread
+                this.write(id);
+            }
+        }
+    }
+
+    /**
+     * Blocks until every save that has been queued so far has been written.
+     */
+    public void flush() {
+        if (this.queuedWrites.get() > 0) {
+            CompletableFuture.runAsync(() -> {}, this.executor).join();
+        }
+    }
+
+    private void write(UUID id) {
+        try {
+            var nbt = this.pending.remove(id);
+            if (nbt != null) {
+                var temporary = File.createTempFile(id + "-", ".dat", this.directory);
+                NbtIo.writeCompressed(nbt, temporary);
+
+                var file = new File(this.directory, id + ".dat");
+                var backup = new File(this.directory, id + ".dat_old");
+                Util.backupAndReplace(file, temporary, backup);
+            }
+        } catch (Exception e) {
+            Plasmid.LOGGER.warn("Failed to save player data for {}", id, e);
+        } finally {
+            this.queuedWrites.decrementAndGet();
+        }
+    }
+
+    /**
+     * Writes every queued save and stops the I/O thread.
+     */
+    @Override
+    public void close() {
+        this.executor.shutdown();
+        try {
+            if (!this.executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                Plasmid.LOGGER.error("Timed out waiting for {} player data saves to be written", this.queuedWrites.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
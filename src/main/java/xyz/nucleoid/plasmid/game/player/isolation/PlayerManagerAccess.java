@@ -2,7 +2,11 @@ package xyz.nucleoid.plasmid.game.player.isolation;
 
 import net.minecraft.network.packet.Packet;
 import net.minecraft.server.network.ServerPlayerEntity;
+import xyz.nucleoid.plasmid.game.player.GamePlayerPool;
 import xyz.nucleoid.plasmid.game.player.PlayerSet;
+import xyz.nucleoid.plasmid.game.player.PlayerSlots;
+
+import java.util.Collection;
 
 public interface PlayerManagerAccess {
     void plasmid$savePlayerData(ServerPlayerEntity player);
@@ -10,4 +14,34 @@ public interface PlayerManagerAccess {
     boolean plasmid$playerInstanceAlreadyExists(ServerPlayerEntity player);
     void plasmid$removePlayer(ServerPlayerEntity player, PlayerSet watchers);
     void plasmid$sendToAllFrom(Packet<?> packet, ServerPlayerEntity player);
+    PlayerSlots plasmid$getPlayerSlots();
+    GamePlayerPool plasmid$getGamePlayerPool();
+    JoinPacketCache plasmid$getJoinPacketCache();
+
+    /**
+     * Starts holding back the removal of player list entries as players are moved, so that entries that stay visible
+     * are kept and each player receives a single combined removal once the outermost batch ends. Updates of entries
+     * that players already know are held back and combined in the same way.
+     * <p>
+     * Additions are never held back, since players are spawned for their watchers as soon as they are added. A group
+     * of players should instead be {@link #plasmid$announcePlayerListGroup announced} together when the batch starts.
+     */
+    void plasmid$beginPlayerListBatch();
+
+    /**
+     * Sends each watcher, and each player of the group, the entries of the group that they do not know about in a
+     * single packet. This should be called right after a batch starts, before any player of the group is moved.
+     *
+     * @param players the players that are about to be moved
+     * @param watchers the players that will be able to see them
+     */
+    void plasmid$announcePlayerListGroup(Collection<ServerPlayerEntity> players, PlayerSet watchers);
+    void plasmid$endPlayerListBatch();
+
+    PlayerDataWriter plasmid$getPlayerDataWriter();
+
+    /**
+     * Writes every queued player data save before returning, and stops the player data I/O thread.
+     */
+    void plasmid$closePlayerDataWriter();
 }
@@ -0,0 +1,393 @@
+package xyz.nucleoid.plasmid.game.player.isolation;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.s2c.play.PlayerListS2CPacket;
+import net.minecraft.network.packet.s2c.play.PlayerRemoveS2CPacket;
+import net.minecraft.server.network.ServerPlayerEntity;
+import xyz.nucleoid.plasmid.PlasmidMetrics;
+import xyz.nucleoid.plasmid.game.player.PlayerSet;
+import xyz.nucleoid.plasmid.mixin.game.space.ServerPlayerEntityAccessor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Tracks which player list entries each client currently knows about, so that moving a player between game spaces only
+ * sends the entries that actually changed rather than removing and re-adding every entry on both sides.
+ * <p>
+ * Entries are added as soon as they become visible, since a client needs to know a player's entry before that player
+ * can be spawned for them. Entries that stop being visible are only removed when the tracker is
+ * {@link TabListTracker#flush flushed}, so that entries that become visible again within a batch of joins, such as
+ * those of party members joining together, are kept and only have their changed properties updated.
+ * <p>
+ * A group of players joining together is {@link TabListTracker#announceGroup announced} up front with one packet for
+ * each watcher, and the property updates of entries that watchers already know are held back within a batch and sent
+ * as one packet for each watcher when it is flushed. A batch of {@code n} joins therefore sends each watcher a constant
+ * number of player list packets rather than {@code n}.
+ * <p>
+ * Latency updates are also only sent for players whose latency has changed enough to show differently in the list.
+ */
+public final class TabListTracker {
+    private static final EnumSet<PlayerListS2CPacket.Action> UPDATE_ACTIONS = EnumSet.of(
+            PlayerListS2CPacket.Action.UPDATE_GAME_MODE,
+            PlayerListS2CPacket.Action.UPDATE_LISTED,
+            PlayerListS2CPacket.Action.UPDATE_LATENCY,
+            PlayerListS2CPacket.Action.UPDATE_DISPLAY_NAME
+    );
+
+    // rough sizes used to estimate the bytes saved by not resending entries
+    private static final int UUID_BYTES = 16;
+    private static final int UPDATE_BYTES = UUID_BYTES + 6;
+    private static final int CHAT_SESSION_BYTES = UUID_BYTES + 8 + 300 + 515;
+
+    private static final EnumSet<PlayerListS2CPacket.Action> LATENCY_ACTIONS = EnumSet.of(PlayerListS2CPacket.Action.UPDATE_LATENCY);
+    private static final int NO_LATENCY_BUCKET = Integer.MIN_VALUE;
+
+    private final Map<UUID, Set<UUID>> known = new Object2ObjectOpenHashMap<>();
+    private final Set<UUID> dirty = new ObjectOpenHashSet<>();
+    private final Map<UUID, Set<UUID>> pendingUpdates = new Object2ObjectOpenHashMap<>();
+
+    private final Object2IntMap<UUID> latencyBuckets = new Object2IntOpenHashMap<>();
+
+    public TabListTracker() {
+        this.latencyBuckets.defaultReturnValue(NO_LATENCY_BUCKET);
+    }
+
+    /**
+     * Creates the packet that sends a newly connected player the full list of entries they can see.
+     *
+     * @param player the player that connected
+     * @param visible the players that they can see
+     * @return the packet to send to the player
+     */
+    public PlayerListS2CPacket initialize(ServerPlayerEntity player, PlayerSet visible) {
+        var entries = visible.stream().toList();
+
+        var known = this.getKnown(player.getUuid());
+        known.clear();
+        for (var entry : entries) {
+            known.add(entry.getUuid());
+        }
+
+        return PlayerListS2CPacket.entryFromPlayer(entries);
+    }
+
+    /**
+     * Sends each of the given watchers, as well as each player of the group, a single packet with the entries of the
+     * players in the group that they do not already know about. This is used before a group of players is moved
+     * together, so that every entry is known before any player of the group is spawned.
+     * <p>
+     * Entries of players that end up not being visible, such as those of players that failed to join, are removed on
+     * the next {@link TabListTracker#flush flush}.
+     *
+     * @param players the players that are about to be added to the player list
+     * @param watchers the players that will be able to see them
+     */
+    public void announceGroup(Collection<ServerPlayerEntity> players, PlayerSet watchers) {
+        for (var watcher : watchers) {
+            this.announceGroupTo(watcher, players);
+        }
+        for (var player : players) {
+            if (!watchers.contains(player.getUuid())) {
+                this.announceGroupTo(player, players);
+            }
+        }
+    }
+
+    private void announceGroupTo(ServerPlayerEntity watcher, Collection<ServerPlayerEntity> players) {
+        var known = this.getKnown(watcher.getUuid());
+
+        List<ServerPlayerEntity> adding = null;
+        for (var player : players) {
+            if (known.add(player.getUuid())) {
+                if (adding == null) {
+                    adding = new ArrayList<>(players.size());
+                }
+                adding.add(player);
+            }
+        }
+
+        if (adding != null) {
+            watcher.networkHandler.sendPacket(PlayerListS2CPacket.entryFromPlayer(adding));
+            this.dirty.add(watcher.getUuid());
+        }
+    }
+
+    /**
+     * Makes sure that every watcher, as well as the player themselves, knows about the current entity of the given
+     * player. Watchers that did not know about the player are sent their full entry, while watchers that did are only
+     * sent its properties that may have changed with the entity.
+     * <p>
+     * Within a batch, the updates sent to watchers other than the player themselves are held back until the next
+     * {@link TabListTracker#flush flush}, where they are combined into one packet for each watcher.
+     *
+     * @param player the player that was added to the player list
+     * @param watchers the players that can now see them
+     * @param batching whether a batch is open
+     */
+    public void announce(ServerPlayerEntity player, PlayerSet watchers, boolean batching) {
+        var adding = new ArrayList<ServerPlayerEntity>();
+        var updating = new ArrayList<ServerPlayerEntity>();
+
+        var id = player.getUuid();
+        this.latencyBuckets.put(id, getLatencyBucket(player));
+        for (var watcher : watchers) {
+            (this.getKnown(watcher.getUuid()).add(id) ? adding : updating).add(watcher);
+        }
+        if (!watchers.contains(id)) {
+            (this.getKnown(id).add(id) ? adding : updating).add(player);
+        }
+
+        if (!adding.isEmpty()) {
+            sendEach(PlayerListS2CPacket.entryFromPlayer(List.of(player)), adding);
+        }
+        if (!updating.isEmpty()) {
+            if (batching) {
+                // the player's own entry is sent right away, since the client reads its own game mode from it
+                for (var watcher : updating) {
+                    if (watcher.getUuid().equals(id)) {
+                        player.networkHandler.sendPacket(new PlayerListS2CPacket(UPDATE_ACTIONS, List.of(player)));
+                    } else {
+                        this.pendingUpdates.computeIfAbsent(watcher.getUuid(), i -> new ObjectOpenHashSet<>()).add(id);
+                    }
+                }
+            } else {
+                sendEach(new PlayerListS2CPacket(UPDATE_ACTIONS, List.of(player)), updating);
+            }
+
+            long saved = (long) updating.size() * (UUID_BYTES + estimateEntryBytes(player) - UPDATE_BYTES);
+            PlasmidMetrics.INSTANCE.onTabListEntriesKept(updating.size(), saved);
+        }
+    }
+
+    /**
+     * Sends the given player the entries of the players they can now see that they do not already know about.
+     * Entries of players that they can no longer see are removed on the next {@link TabListTracker#flush flush}.
+     *
+     * @param player the player that was added to the player list
+     * @param visible the players that they can now see
+     */
+    public void sync(ServerPlayerEntity player, PlayerSet visible) {
+        var known = this.getKnown(player.getUuid());
+
+        var adding = new ArrayList<ServerPlayerEntity>();
+        int kept = 0;
+        long saved = 0;
+        for (var other : visible) {
+            if (known.add(other.getUuid())) {
+                adding.add(other);
+            } else if (other != player) {
+                kept++;
+                saved += UUID_BYTES + estimateEntryBytes(other);
+            }
+        }
+
+        if (!adding.isEmpty()) {
+            player.networkHandler.sendPacket(PlayerListS2CPacket.entryFromPlayer(adding));
+        }
+        if (known.size() > visible.size()) {
+            this.dirty.add(player.getUuid());
+        }
+
+        PlasmidMetrics.INSTANCE.onTabListSync();
+        if (kept > 0) {
+            PlasmidMetrics.INSTANCE.onTabListEntriesKept(kept, saved);
+        }
+    }
+
+    /**
+     * Schedules the given player's entry to be removed for every watcher on the next {@link TabListTracker#flush flush},
+     * unless they can see the player again by then.
+     *
+     * @param player the player that was removed from the player list
+     * @param watchers the players that could see them
+     */
+    public void hide(ServerPlayerEntity player, PlayerSet watchers) {
+        var id = player.getUuid();
+        for (var watcher : watchers) {
+            var known = this.known.get(watcher.getUuid());
+            if (known != null && known.contains(id)) {
+                this.dirty.add(watcher.getUuid());
+            }
+        }
+    }
+
+    /**
+     * Removes every entry that a player can no longer see, combining the removals for each player into one packet, and
+     * then sends the updates held back by {@link TabListTracker#announce}, combined into one packet for each player.
+     *
+     * @param players the players in the player list
+     * @param visibleFor a function that returns the players that the given player can see
+     * @param lookup a function that returns the player in the player list with the given UUID, if any
+     */
+    public void flush(Collection<ServerPlayerEntity> players, Function<ServerPlayerEntity, PlayerSet> visibleFor, Function<UUID, ServerPlayerEntity> lookup) {
+        if (!this.dirty.isEmpty()) {
+            this.flushRemovals(players, visibleFor);
+        }
+        if (!this.pendingUpdates.isEmpty()) {
+            this.flushUpdates(lookup);
+        }
+    }
+
+    private void flushRemovals(Collection<ServerPlayerEntity> players, Function<ServerPlayerEntity, PlayerSet> visibleFor) {
+
+        // players that are not in the player list are in the middle of being moved, and will be flushed once added
+        for (var player : players) {
+            var id = player.getUuid();
+            if (!this.dirty.remove(id)) {
+                continue;
+            }
+
+            var known = this.known.get(id);
+            if (known == null) {
+                continue;
+            }
+
+            var visible = visibleFor.apply(player);
+            List<UUID> removed = null;
+            for (var iterator = known.iterator(); iterator.hasNext(); ) {
+                var entry = iterator.next();
+                if (!visible.contains(entry)) {
+                    iterator.remove();
+                    if (removed == null) {
+                        removed = new ArrayList<>();
+                    }
+                    removed.add(entry);
+                }
+            }
+
+            if (removed != null) {
+                player.networkHandler.sendPacket(new PlayerRemoveS2CPacket(removed));
+            }
+        }
+    }
+
+    private void flushUpdates(Function<UUID, ServerPlayerEntity> lookup) {
+        for (var entry : this.pendingUpdates.entrySet()) {
+            var watcher = lookup.apply(entry.getKey());
+            var known = this.known.get(entry.getKey());
+            if (watcher == null || known == null) {
+                continue;
+            }
+
+            var updating = new ArrayList<ServerPlayerEntity>(entry.getValue().size());
+            for (var id : entry.getValue()) {
+                var player = lookup.apply(id);
+                if (player != null && known.contains(id)) {
+                    updating.add(player);
+                }
+            }
+
+            if (!updating.isEmpty()) {
+                watcher.networkHandler.sendPacket(new PlayerListS2CPacket(UPDATE_ACTIONS, updating));
+            }
+        }
+        this.pendingUpdates.clear();
+    }
+
+    /**
+     * Sends the given players an update of the latencies that have changed enough to show a different number of bars in
+     * the player list since they were last sent. Nothing is sent if no latency has changed.
+     *
+     * @param players the players to update the latencies of, who can all see each other
+     */
+    public void updateLatency(PlayerSet players) {
+        List<ServerPlayerEntity> changed = null;
+        for (var player : players) {
+            int bucket = getLatencyBucket(player);
+            if (this.latencyBuckets.put(player.getUuid(), bucket) != bucket) {
+                if (changed == null) {
+                    changed = new ArrayList<>();
+                }
+                changed.add(player);
+            }
+        }
+
+        if (changed != null) {
+            players.broadcastPacket(new PlayerListS2CPacket(LATENCY_ACTIONS, changed));
+        }
+    }
+
+    /**
+     * Forgets everything about a player that disconnected.
+     *
+     * @param player the player that disconnected
+     * @param watchers the players that are being sent the removal of their entry
+     */
+    public void onDisconnect(ServerPlayerEntity player, PlayerSet watchers) {
+        var id = player.getUuid();
+        this.known.remove(id);
+        this.dirty.remove(id);
+        this.pendingUpdates.remove(id);
+        this.latencyBuckets.removeInt(id);
+
+        for (var watcher : watchers) {
+            var known = this.known.get(watcher.getUuid());
+            if (known != null) {
+                known.remove(id);
+            }
+        }
+    }
+
+    private static void sendEach(Packet<?> packet, List<ServerPlayerEntity> players) {
+        for (var player : players) {
+            player.networkHandler.sendPacket(packet);
+        }
+    }
+
+    private Set<UUID> getKnown(UUID id) {
+        return this.known.computeIfAbsent(id, i -> new ObjectOpenHashSet<>());
+    }
+
+    private static int getLatencyBucket(ServerPlayerEntity player) {
+        // these match the signal bars shown by the client
+        int latency = player.pingMilliseconds;
+        if (latency < 0) {
+            return -1;
+        } else if (latency < 150) {
+            return 0;
+        } else if (latency < 300) {
+            return 1;
+        } else if (latency < 600) {
+            return 2;
+        } else if (latency < 1000) {
+            return 3;
+        } else {
+            return 4;
+        }
+    }
+
+    private static int estimateEntryBytes(ServerPlayerEntity player) {
+        var profile = player.getGameProfile();
+
+        int bytes = UPDATE_BYTES + stringBytes(profile.getName()) + 1;
+        for (var property : profile.getProperties().values()) {
+            bytes += stringBytes(property.getName()) + stringBytes(property.getValue()) + 1;
+            if (property.hasSignature()) {
+                bytes += stringBytes(property.getSignature());
+            }
+        }
+
+        bytes += 1;
+        if (((ServerPlayerEntityAccessor) player).getSession() != null) {
+            bytes += CHAT_SESSION_BYTES;
+        }
+
+        return bytes;
+    }
+
+    private static int stringBytes(String string) {
+        return 2 + string.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
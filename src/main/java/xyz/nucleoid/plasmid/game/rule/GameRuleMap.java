@@ -8,10 +8,15 @@ import org.jetbrains.annotations.Nullable;
 import xyz.nucleoid.stimuli.event.EventListenerMap;
 import xyz.nucleoid.stimuli.event.StimulusEvent;
 
+import java.util.Arrays;
 import java.util.Map;
 
 public final class GameRuleMap {
+    private static final ActionResult[] EMPTY_RESULTS = new ActionResult[0];
+
     private final Reference2ObjectMap<GameRuleType, ActionResult> rules = new Reference2ObjectOpenHashMap<>();
+    // indexed by rule type id for testing rules from hot paths without a map lookup; null entries pass
+    private ActionResult[] results = EMPTY_RESULTS;
     private EventListenerMap listeners = null;
 
     public static GameRuleMap empty() {
@@ -26,7 +31,15 @@ public final class GameRuleMap {
 
     @NotNull
     public ActionResult test(GameRuleType rule) {
-        return this.rules.getOrDefault(rule, ActionResult.PASS);
+        var results = this.results;
+        int id = rule.id();
+        if (id < results.length) {
+            var result = results[id];
+            if (result != null) {
+                return result;
+            }
+        }
+        return ActionResult.PASS;
     }
 
     @Nullable
@@ -37,12 +50,25 @@ public final class GameRuleMap {
 
     private boolean trySet(GameRuleType rule, ActionResult result) {
         if (result != ActionResult.PASS) {
+            this.setResult(rule.id(), result);
             return this.rules.put(rule, result) != result;
         } else {
+            this.setResult(rule.id(), null);
             return this.rules.remove(rule) != null;
         }
     }
 
+    private void setResult(int id, @Nullable ActionResult result) {
+        var results = this.results;
+        if (id >= results.length) {
+            if (result == null) {
+                return;
+            }
+            this.results = results = Arrays.copyOf(results, id + 1);
+        }
+        results[id] = result;
+    }
+
     private EventListenerMap getListeners() {
         var listeners = this.listeners;
         if (listeners == null) {
@@ -31,10 +31,13 @@ import xyz.nucleoid.stimuli.event.world.NetherPortalOpenEvent;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class GameRuleType {
     public static final Comparator<GameRuleType> COMPARATOR = Comparator.comparing(type -> type.priority);
 
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
     public static final GameRuleType BREAK_BLOCKS = GameRuleType.create()
             .enforces(BlockBreakEvent.EVENT, result -> (player, world, pos) -> result);
 
@@ -120,6 +123,8 @@ public final class GameRuleType {
     public static final GameRuleType MODIFY_ARMOR = GameRuleType.create();
     public static final GameRuleType SWAP_OFFHAND = GameRuleType.create().enforces(PlayerSwapWithOffhandEvent.EVENT, result -> (player) -> result);
 
+    private final int id = NEXT_ID.getAndIncrement();
+
     private GameRuleEnforcer enforcer;
     private Priority priority = Priority.NORMAL;
 
@@ -158,6 +163,13 @@ public final class GameRuleType {
         return this;
     }
 
+    /**
+     * @return a dense index of this rule type, assigned in order of creation
+     */
+    int id() {
+        return this.id;
+    }
+
     public void enforce(EventRegistrar events, ActionResult result) {
         var enforcer = this.enforcer;
         if (enforcer != null) {
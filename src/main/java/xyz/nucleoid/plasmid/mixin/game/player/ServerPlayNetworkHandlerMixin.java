@@ -0,0 +1,93 @@
+package xyz.nucleoid.plasmid.mixin.game.player;
+
+import net.minecraft.network.PacketCallbacks;
+import net.minecraft.network.listener.ClientPlayPacketListener;
+import net.minecraft.network.packet.BundlePacket;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.network.packet.s2c.play.BundleS2CPacket;
+import net.minecraft.server.network.ServerPlayNetworkHandler;
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import xyz.nucleoid.plasmid.game.player.PacketBatchingHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Mixin(ServerPlayNetworkHandler.class)
+public abstract class ServerPlayNetworkHandlerMixin implements PacketBatchingHandler {
+    // the client refuses bundles of more than 4096 packets
+    @Unique
+    private static final int MAX_BUNDLE_SIZE = 4096;
+
+    @Unique
+    private final List<Packet<ClientPlayPacketListener>> plasmid$batch = new ArrayList<>();
+    @Unique
+    private int plasmid$batchDepth;
+
+    @Shadow
+    public abstract void sendPacket(Packet<?> packet, @Nullable PacketCallbacks callbacks);
+
+    @Inject(method = "sendPacket(Lnet/minecraft/network/packet/Packet;Lnet/minecraft/network/PacketCallbacks;)V", at = @At("HEAD"), cancellable = true)
+    private void plasmid$collectBatchedPacket(Packet<?> packet, @Nullable PacketCallbacks callbacks, CallbackInfo ci) {
+        if (this.plasmid$batchDepth <= 0) {
+            return;
+        }
+
+        if (callbacks != null || packet instanceof BundlePacket<?>) {
+            // keep the order of packets that cannot be bundled
+            this.plasmid$flushBatch();
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        var playPacket = (Packet<ClientPlayPacketListener>) packet;
+        this.plasmid$batch.add(playPacket);
+        if (this.plasmid$batch.size() >= MAX_BUNDLE_SIZE - 1) {
+            this.plasmid$flushBatch();
+        }
+
+        ci.cancel();
+    }
+
+    @Override
+    public void plasmid$beginBatch() {
+        this.plasmid$batchDepth++;
+    }
+
+    @Override
+    public void plasmid$endBatch() {
+        if (this.plasmid$batchDepth > 0 && --this.plasmid$batchDepth == 0) {
+            this.plasmid$flushBatch();
+        }
+    }
+
+    @Override
+    public boolean plasmid$isBatching() {
+        return this.plasmid$batchDepth > 0;
+    }
+
+    @Unique
+    private void plasmid$flushBatch() {
+        var batch = this.plasmid$batch;
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // the bundle is encoded later on the network thread, so it must not hold on to our reused list
+        Packet<?> packet = batch.size() == 1 ? batch.get(0) : new BundleS2CPacket(List.copyOf(batch));
+        batch.clear();
+
+        int depth = this.plasmid$batchDepth;
+        this.plasmid$batchDepth = 0;
+        try {
+            this.sendPacket(packet, null);
+        } finally {
+            this.plasmid$batchDepth = depth;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package xyz.nucleoid.plasmid.mixin.game.space;
+
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import xyz.nucleoid.plasmid.game.player.isolation.PlayerManagerAccess;
+
+@Mixin(CommandManager.class)
+public class CommandManagerMixin {
+    @Inject(method = "sendCommandTree", at = @At("HEAD"))
+    private void forgetSentCommandTree(ServerPlayerEntity player, CallbackInfo ci) {
+        // the player is about to be sent a tree that the join packet cache does not know about
+        var playerManager = (PlayerManagerAccess) player.server.getPlayerManager();
+        playerManager.plasmid$getJoinPacketCache().forgetCommandTree(player.getUuid());
+    }
+}
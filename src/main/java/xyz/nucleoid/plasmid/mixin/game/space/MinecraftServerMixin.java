@@ -0,0 +1,28 @@
+package xyz.nucleoid.plasmid.mixin.game.space;
+
+import com.llamalad7.mixinextras.injector.WrapWithCondition;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import xyz.nucleoid.plasmid.game.manager.GameSpaceManager;
+
+import java.util.function.BooleanSupplier;
+
+@Mixin(MinecraftServer.class)
+public class MinecraftServerMixin {
+    @WrapWithCondition(
+            method = "tickWorlds",
+            at = @At(value = "INVOKE", target = "Lnet/minecraft/server/world/ServerWorld;tick(Ljava/util/function/BooleanSupplier;)V")
+    )
+    private boolean plasmid$skipHibernatingWorld(ServerWorld world, BooleanSupplier shouldKeepTicking) {
+        var gameSpace = GameSpaceManager.get().byWorld(world);
+        if (gameSpace == null || !gameSpace.isHibernating()) {
+            return true;
+        }
+
+        // keep processing chunk tickets so that released chunks can still unload
+        world.getChunkManager().tick(shouldKeepTicking, false);
+        return false;
+    }
+}
@@ -1,6 +1,7 @@
 package xyz.nucleoid.plasmid.mixin.game.space;
 
 import io.netty.buffer.Unpooled;
+import net.minecraft.nbt.NbtCompound;
 import net.minecraft.network.ClientConnection;
 import net.minecraft.network.PacketByteBuf;
 import net.minecraft.network.packet.Packet;
@@ -8,30 +9,38 @@ import net.minecraft.network.packet.s2c.play.*;
 import net.minecraft.registry.CombinedDynamicRegistries;
 import net.minecraft.registry.DynamicRegistryManager;
 import net.minecraft.registry.ServerDynamicRegistryType;
-import net.minecraft.registry.tag.TagPacketSerializer;
 import net.minecraft.resource.featuretoggle.FeatureFlags;
 import net.minecraft.scoreboard.ServerScoreboard;
 import com.llamalad7.mixinextras.injector.WrapWithCondition;
+import net.minecraft.entity.EntityStatuses;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.PlayerManager;
 import net.minecraft.server.ServerMetadata;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.GameRules;
 import net.minecraft.world.WorldSaveHandler;
 import net.minecraft.world.biome.source.BiomeAccess;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import xyz.nucleoid.plasmid.PlasmidConfig;
 import xyz.nucleoid.plasmid.game.manager.GameSpaceManager;
+import xyz.nucleoid.plasmid.game.player.GamePlayerPool;
 import xyz.nucleoid.plasmid.game.player.PlayerSet;
+import xyz.nucleoid.plasmid.game.player.PlayerSlots;
+import xyz.nucleoid.plasmid.game.player.isolation.JoinPacketCache;
+import xyz.nucleoid.plasmid.game.player.isolation.PlayerDataWriter;
 import xyz.nucleoid.plasmid.game.player.isolation.PlayerManagerAccess;
+import xyz.nucleoid.plasmid.game.player.isolation.TabListTracker;
 
 import java.util.*;
 
@@ -48,6 +57,8 @@ public abstract class PlayerManagerMixin implements PlayerManagerAccess {
     @Final @Shadow
     private List<ServerPlayerEntity> players;
     @Final @Shadow
+    private WorldSaveHandler saveHandler;
+    @Final @Shadow
     private CombinedDynamicRegistries<ServerDynamicRegistryType> registryManager;
     @Final @Shadow
     private Map<UUID, ServerPlayerEntity> playerMap;
@@ -58,8 +69,6 @@ public abstract class PlayerManagerMixin implements PlayerManagerAccess {
     @Shadow
     private int simulationDistance;
     @Shadow
-    public abstract void sendCommandTree(ServerPlayerEntity player);
-    @Shadow
     protected abstract void sendScoreboard(ServerScoreboard scoreboard, ServerPlayerEntity player);
     @Shadow
     public abstract void sendWorldInfo(ServerPlayerEntity player, ServerWorld world);
@@ -68,12 +77,51 @@ public abstract class PlayerManagerMixin implements PlayerManagerAccess {
     @Shadow
     public abstract int getMaxPlayerCount();
 
+    @Unique
+    private final PlayerSlots playerSlots = new PlayerSlots();
+
+    @Unique
+    private PlayerDataWriter playerDataWriter;
+
+    @Unique
+    private final GamePlayerPool gamePlayerPool = new GamePlayerPool(PlasmidConfig.get().gamePlayerPool());
+
+    @Unique
+    private final JoinPacketCache joinPacketCache = new JoinPacketCache(PlasmidConfig.get().joinPacketCache());
+
+    @Unique
+    private final TabListTracker tabList = new TabListTracker();
+    @Unique
+    private int playerListBatchDepth;
+
+    @Override
+    public PlayerSlots plasmid$getPlayerSlots() {
+        return this.playerSlots;
+    }
+
+    @Override
+    public GamePlayerPool plasmid$getGamePlayerPool() {
+        return this.gamePlayerPool;
+    }
+
+    @Override
+    public JoinPacketCache plasmid$getJoinPacketCache() {
+        return this.joinPacketCache;
+    }
+
+    @Inject(method = "remove", at = @At("HEAD"))
+    private void removePlayerFromList(ServerPlayerEntity player, CallbackInfo ci) {
+        GameSpaceManager.get().onPlayerListRemove(player);
+    }
+
     @Inject(method = "remove", at = @At("RETURN"))
     private void removePlayer(ServerPlayerEntity player, CallbackInfo ci) {
         var gameSpace = GameSpaceManager.get().byPlayer(player);
         if (gameSpace != null) {
             gameSpace.getPlayers().remove(player);
         }
+        this.gamePlayerPool.remove(player.getUuid());
+        this.joinPacketCache.forgetCommandTree(player.getUuid());
     }
 
     @Inject(
@@ -88,6 +136,13 @@ public abstract class PlayerManagerMixin implements PlayerManagerAccess {
         gameSpace.getPlayers().kick(player);
     }
 
+    @Inject(method = "respawnPlayer", at = @At("RETURN"))
+    private void onRespawnPlayer(ServerPlayerEntity player, boolean alive, CallbackInfoReturnable<ServerPlayerEntity> cir) {
+        // vanilla swaps the respawned player for a new entity in the player list: this replaces the dead entity in the
+        // player slots and, since the player was kicked from any game space above, in the players not in a game
+        GameSpaceManager.get().onPlayerListAdd(cir.getReturnValue());
+    }
+
     @Override
     public void plasmid$savePlayerData(ServerPlayerEntity player) {
         this.savePlayerData(player);
@@ -108,14 +163,36 @@ public abstract class PlayerManagerMixin implements PlayerManagerAccess {
     public void plasmid$removePlayer(ServerPlayerEntity player, PlayerSet watcher)
     {
         this.players.remove(player); //disable the old player
+        GameSpaceManager.get().onPlayerListRemove(player);
         var world = player.getServerWorld();
         world.removePlayer(player, CHANGED_DIMENSION);
         world.getChunkManager().sendToOtherNearbyPlayers(player, new EntitiesDestroyS2CPacket(player.getId()));
 
-        var list = new ArrayList<UUID>(watcher.size());
-        watcher.forEach(i -> list.add(i.getUuid()));
-        player.networkHandler.sendPacket(new PlayerRemoveS2CPacket(list));
-        watcher.sendPacket(new PlayerRemoveS2CPacket(List.of(player.getUuid())));
+        //the entries are only removed once the player has been added again, so that entries that stay visible are kept
+        this.tabList.hide(player, watcher);
+    }
+
+    @Override
+    public void plasmid$beginPlayerListBatch() {
+        this.playerListBatchDepth++;
+    }
+
+    @Override
+    public void plasmid$announcePlayerListGroup(Collection<ServerPlayerEntity> players, PlayerSet watchers) {
+        this.tabList.announceGroup(players, watchers);
+    }
+
+    @Override
+    public void plasmid$endPlayerListBatch() {
+        if (this.playerListBatchDepth <= 0 || --this.playerListBatchDepth > 0) {
+            return;
+        }
+        this.flushTabList();
+    }
+
+    @Unique
+    private void flushTabList() {
+        this.tabList.flush(this.players, this::getPlayerSetFor, this.playerMap::get);
     }
 
     @Override
@@ -162,8 +239,8 @@ public abstract class PlayerManagerMixin implements PlayerManagerAccess {
             serverPlayNetworkHandler.sendPacket(new FeaturesS2CPacket(FeatureFlags.FEATURE_MANAGER.toId(world.getEnabledFeatures())));
             serverPlayNetworkHandler.sendPacket(new CustomPayloadS2CPacket(CustomPayloadS2CPacket.BRAND, (new PacketByteBuf(Unpooled.buffer())).writeString(this.server.getServerModName())));
 
-            serverPlayNetworkHandler.sendPacket(new SynchronizeRecipesS2CPacket(this.server.getRecipeManager().values()));
-            serverPlayNetworkHandler.sendPacket(new SynchronizeTagsS2CPacket(TagPacketSerializer.serializeTags(this.registryManager)));
+            serverPlayNetworkHandler.sendPacket(this.joinPacketCache.getRecipes(this.server));
+            serverPlayNetworkHandler.sendPacket(this.joinPacketCache.getTags(this.registryManager));
             //serverPlayNetworkHandler.sendPacket(new UpdateSelectedSlotS2CPacket(player.getInventory().selectedSlot));
         }
         else
@@ -185,7 +262,9 @@ public abstract class PlayerManagerMixin implements PlayerManagerAccess {
         serverPlayNetworkHandler.sendPacket(new ExperienceBarUpdateS2CPacket(player.experienceProgress, player.totalExperience, player.experienceLevel));
         player.sendAbilitiesUpdate();
 
-        this.sendCommandTree(player);
+        int permissionLevel = MathHelper.clamp(this.server.getPermissionLevel(player.getGameProfile()), 0, 4);
+        serverPlayNetworkHandler.sendPacket(new EntityStatusS2CPacket(player, (byte) (EntityStatuses.SET_OP_LEVEL_0 + permissionLevel)));
+        this.joinPacketCache.sendCommandTree(player); //only sent when it differs from the last tree the player was sent
         this.sendPlayerStatus(player);
         player.getStatHandler().updateStatSet();
         player.getRecipeBook().sendInitRecipesPacket(player);
@@ -200,13 +279,18 @@ public abstract class PlayerManagerMixin implements PlayerManagerAccess {
             player.sendServerMetadata(serverMetadata);
         }
 
-        player.networkHandler.sendPacket(PlayerListS2CPacket.entryFromPlayer(watchers.stream().toList()));
-
         this.players.add(player); //add player to the server
         this.playerMap.put(player.getUuid(), player);
+        GameSpaceManager.get().onPlayerListAdd(player);
 
-        watchers.sendPacket(PlayerListS2CPacket.entryFromPlayer(List.of(player)));
+        //only send the entries that are not already known, this must happen before the player is spawned for the watchers
+        this.tabList.sync(player, watchers);
+        this.tabList.announce(player, watchers, this.playerListBatchDepth > 0);
+        if (this.playerListBatchDepth <= 0) {
+            this.flushTabList();
+        }
         this.sendWorldInfo(player, world);
+        //the player list entries above, and any announced for a batch, are never held back: the client drops spawned players it has no entry for
         world.onPlayerConnected(player); //same as world.onRespawnPlayer or onTeleport...
         this.server.getBossBarManager().onPlayerConnect(player);
 
@@ -240,7 +324,36 @@ public abstract class PlayerManagerMixin implements PlayerManagerAccess {
     )
     private boolean savePlayerData(WorldSaveHandler handler, PlayerEntity player)
     {
-        return !GameSpaceManager.get().inGame(player);
+        if (!GameSpaceManager.get().inGame(player)) {
+            this.plasmid$getPlayerDataWriter().submit(player);
+        }
+        return false;
+    }
+
+    @Inject(method = "loadPlayerData", at = @At("HEAD"))
+    private void flushPlayerDataBeforeLoad(ServerPlayerEntity player, CallbackInfoReturnable<NbtCompound> cir) {
+        // a save for this player may still be waiting to be written
+        if (this.playerDataWriter != null) {
+            this.playerDataWriter.flush();
+        }
+    }
+
+    @Override
+    public PlayerDataWriter plasmid$getPlayerDataWriter() {
+        var writer = this.playerDataWriter;
+        if (writer == null) {
+            this.playerDataWriter = writer = new PlayerDataWriter(this.saveHandler.playerDataDir);
+        }
+        return writer;
+    }
+
+    @Override
+    public void plasmid$closePlayerDataWriter() {
+        var writer = this.playerDataWriter;
+        if (writer != null) {
+            this.playerDataWriter = null;
+            writer.close();
+        }
     }
 
     /**
@@ -257,33 +370,45 @@ public abstract class PlayerManagerMixin implements PlayerManagerAccess {
     @Redirect(method = "onPlayerConnect", at = @At(value = "INVOKE", target = "Lnet/minecraft/server/PlayerManager;sendToAll(Lnet/minecraft/network/packet/Packet;)V"))
     void sendToAllInOnPlayerConnect(PlayerManager playerManager, Packet<?> packet, ClientConnection connection, ServerPlayerEntity player)
     {
-        this.plasmid$sendToAllFrom(packet, player);
+        GameSpaceManager.get().onPlayerListAdd(player); //vanilla has just added the player to the player list
+        this.tabList.announce(player, this.getPlayerSetFor(player), false); //send the new player's entry to everyone who can see them
     }
 
     @Redirect(method = "onPlayerConnect", at = @At(value = "INVOKE", target = "Lnet/minecraft/network/packet/s2c/play/PlayerListS2CPacket;entryFromPlayer(Ljava/util/Collection;)Lnet/minecraft/network/packet/s2c/play/PlayerListS2CPacket;"))
     PlayerListS2CPacket entryFromPlayer(Collection<ServerPlayerEntity> players, ClientConnection connection, ServerPlayerEntity player)
     {
-        return PlayerListS2CPacket.entryFromPlayer(this.getPlayerSetFor(player).stream().toList());
+        return this.tabList.initialize(player, this.getPlayerSetFor(player));
     }
 
     @Redirect(method = "remove", at = @At(value = "INVOKE", target = "Lnet/minecraft/server/PlayerManager;sendToAll(Lnet/minecraft/network/packet/Packet;)V"))
     void sendToAllInRemove(PlayerManager playerManager, Packet<?> packet, ServerPlayerEntity player)
     {
-        this.plasmid$sendToAllFrom(packet, player);
+        var watchers = this.getPlayerSetFor(player);
+        this.tabList.onDisconnect(player, watchers);
+        watchers.sendPacket(packet);
+    }
+
+    @Inject(method = "updatePlayerLatency", at = @At("HEAD"))
+    private void flushTabListOnTick(CallbackInfo ci) {
+        //remove any entries left over from players that were removed without being added again
+        if (this.playerListBatchDepth <= 0) {
+            this.flushTabList();
+        }
     }
 
     @Redirect(method = "updatePlayerLatency", at = @At(value = "INVOKE", target = "Lnet/minecraft/server/PlayerManager;sendToAll(Lnet/minecraft/network/packet/Packet;)V"))
     void updatePlayerLatency(PlayerManager instance, Packet<?> packet)
     {
+        //only players whose latency bars changed are sent, and game spaces without any changes are skipped
         for(var game : GameSpaceManager.get().getOpenGameSpaces())
         {
             var playerSet = game.getPlayers();
-            var playerList = playerSet.stream().toList();
-            playerSet.sendPacket(new PlayerListS2CPacket(EnumSet.of(PlayerListS2CPacket.Action.UPDATE_LATENCY), playerList));
+            if (!playerSet.isEmpty()) {
+                this.tabList.updateLatency(playerSet);
+            }
         }
 
-        var set = GameSpaceManager.get().getPlayersNotInGame();
-        set.sendPacket(new PlayerListS2CPacket(EnumSet.of(PlayerListS2CPacket.Action.UPDATE_LATENCY), set.stream().toList()));
+        this.tabList.updateLatency(GameSpaceManager.get().getPlayersNotInGame());
     }
 
 }
@@ -2,21 +2,73 @@ package xyz.nucleoid.plasmid.util;
 
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.server.MinecraftServer;
+import xyz.nucleoid.plasmid.Plasmid;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.IntPredicate;
 
-public final class Scheduler {
+/**
+ * Runs tasks on the server thread after a delay in ticks.
+ * <p>
+ * Tasks are kept in a hierarchical timing wheel: each level has 64 slots, with every slot of a level covering 64 times
+ * as many ticks as a slot of the level below. Scheduling a task and expiring a slot are both constant time, and a task
+ * that is far in the future is only looked at again when its slot is cascaded down to a finer level, rather than on
+ * every tick.
+ * <p>
+ * Tasks may be submitted from any thread. They are handed to the wheel on the server thread at the next tick.
+ * <p>
+ * Besides the global {@link Scheduler#INSTANCE}, schedulers can be created with {@link Scheduler#create} for tasks that
+ * belong to something with a shorter lifetime, such as a game space. These are ticked by their owner and cancel all
+ * of their tasks when closed.
+ */
+public final class Scheduler implements AutoCloseable {
     public static final Scheduler INSTANCE = new Scheduler();
 
-    private final ConcurrentLinkedQueue<Task> taskQueue = new ConcurrentLinkedQueue<>();
-    private int currentTick = 0;
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int WHEEL_LEVELS = 4;
+
+    private final ConcurrentLinkedQueue<Task> submitted = new ConcurrentLinkedQueue<>();
+    private final Task[][] wheel = new Task[WHEEL_LEVELS][WHEEL_SIZE];
+    private final List<Task> expired = new ArrayList<>();
+
+    private final AtomicInteger queuedTaskCount = new AtomicInteger();
+
+    private volatile int currentTick;
+    private int wheelTick;
+    private boolean started;
+    private volatile boolean closed;
+
+    private long tasksRun;
+    private long totalLatenessTicks;
+    private int lastMaxLatenessTicks;
+    private long lastRunNanos;
+    private long totalRunNanos;
 
     private Scheduler() {
-        ServerTickEvents.END_SERVER_TICK.register(this::runTasks);
+        ServerTickEvents.END_SERVER_TICK.register(this::tick);
+    }
+
+    private Scheduler(int currentTick) {
+        this.currentTick = currentTick;
+    }
+
+    /**
+     * creates a scheduler that is not run by the server: its owner is responsible for calling
+     * {@link Scheduler#tick(MinecraftServer)} once per tick and for closing it
+     *
+     * @param server the server that tasks will be run on
+     * @return a new scheduler
+     */
+    public static Scheduler create(MinecraftServer server) {
+        return new Scheduler(server.getTicks());
     }
 
     /**
@@ -30,17 +82,26 @@ public final class Scheduler {
     }
 
     /**
-     * queue a one time task to be executed on the server thread and capture the result in a {@link CompletableFuture}
+     * queue a one time task to be executed on the server thread and capture the result in a {@link CompletableFuture}.
+     * cancelling the returned future before the task runs prevents it from running.
      *
      * @param delay how many ticks in the future this should be called, where 0 means at the end of the current tick
      * @param task the action to perform
      */
     public <T> CompletableFuture<T> submit(Function<MinecraftServer, T> task, int delay) {
         var future = new CompletableFuture<T>();
-        this.submit(server -> {
-            var result = task.apply(server);
-            future.complete(result);
+        var handle = this.schedule(server -> {
+            if (!future.isDone()) {
+                try {
+                    future.complete(task.apply(server));
+                } catch (Throwable throwable) {
+                    future.completeExceptionally(throwable);
+                }
+            }
         }, delay);
+
+        future.whenComplete((result, throwable) -> handle.cancel());
+
         return future;
     }
 
@@ -50,7 +111,7 @@ public final class Scheduler {
      * @param task the action to perform
      */
     public void submit(Consumer<MinecraftServer> task) {
-        this.submit(task, 0);
+        this.schedule(task, 0);
     }
 
     /**
@@ -60,7 +121,7 @@ public final class Scheduler {
      * @param task the action to perform
      */
     public void submit(Consumer<MinecraftServer> task, int delay) {
-        this.taskQueue.add(new OneshotTask(task, this.currentTick + delay));
+        this.schedule(task, delay);
     }
 
     /**
@@ -71,7 +132,7 @@ public final class Scheduler {
      * @param interval the number of ticks in between each execution
      */
     public void repeat(Consumer<MinecraftServer> task, int delay, int interval) {
-        this.repeatWhile(task, null, delay, interval);
+        this.scheduleRepeatingWhile(task, null, delay, interval);
     }
 
     /**
@@ -83,65 +144,354 @@ public final class Scheduler {
      * @param interval the number of ticks in between each execution
      */
     public void repeatWhile(Consumer<MinecraftServer> task, IntPredicate condition, int delay, int interval) {
-        int beginTime = this.currentTick + delay;
-        this.enqueue(new DoWhileTask(task, condition, beginTime, interval));
+        this.scheduleRepeatingWhile(task, condition, delay, interval);
+    }
+
+    /**
+     * queue a one time task to be executed on the server thread, like {@link Scheduler#submit(Consumer, int)}
+     *
+     * @param task the action to perform
+     * @param delay how many ticks in the future this should be called, where 0 means at the end of the current tick
+     * @return a handle that can be used to cancel the task
+     */
+    public Handle schedule(Consumer<MinecraftServer> task, int delay) {
+        return this.enqueue(new Task(task, null, this.currentTick, delay, 0));
+    }
+
+    /**
+     * schedule a repeating task that is executed infinitely every n ticks, like
+     * {@link Scheduler#repeat(Consumer, int, int)}
+     *
+     * @param task the action to perform
+     * @param delay how many ticks in the future this event should first be called
+     * @param interval the number of ticks in between each execution
+     * @return a handle that can be used to cancel the task
+     */
+    public Handle scheduleRepeating(Consumer<MinecraftServer> task, int delay, int interval) {
+        return this.scheduleRepeatingWhile(task, null, delay, interval);
+    }
+
+    /**
+     * repeat the given task until the predicate returns false, like
+     * {@link Scheduler#repeatWhile(Consumer, IntPredicate, int, int)}
+     *
+     * @param task the action to perform
+     * @param condition whether or not to reschedule the task again, with the parameter being the current tick
+     * @param delay how many ticks in the future this event should first be called
+     * @param interval the number of ticks in between each execution
+     * @return a handle that can be used to cancel the task
+     */
+    public Handle scheduleRepeatingWhile(Consumer<MinecraftServer> task, IntPredicate condition, int delay, int interval) {
+        return this.enqueue(new Task(task, condition, this.currentTick, delay, Math.max(interval, 1)));
+    }
+
+    /**
+     * @return the number of tasks currently waiting to be run
+     */
+    public int getQueuedTaskCount() {
+        return this.queuedTaskCount.get();
+    }
+
+    /**
+     * @return the total number of task executions
+     */
+    public long getTasksRun() {
+        return this.tasksRun;
     }
 
-    private void enqueue(Task task) {
-        this.taskQueue.add(task);
+    /**
+     * @return the total number of ticks by which task executions ran later than they were scheduled for
+     */
+    public long getTotalLatenessTicks() {
+        return this.totalLatenessTicks;
     }
 
-    private void runTasks(MinecraftServer server) {
+    /**
+     * @return the most ticks by which a task ran late during the last tick
+     */
+    public int getLastMaxLatenessTicks() {
+        return this.lastMaxLatenessTicks;
+    }
+
+    /**
+     * @return the time spent running tasks during the last tick
+     */
+    public long getLastRunNanos() {
+        return this.lastRunNanos;
+    }
+
+    /**
+     * @return the total time spent running tasks
+     */
+    public long getTotalRunNanos() {
+        return this.totalRunNanos;
+    }
+
+    private Task enqueue(Task task) {
+        // checked under the same lock that close() drains with, so that no task can be added after it is drained
+        synchronized (this.submitted) {
+            if (this.closed) {
+                task.cancelled = true;
+                return task;
+            }
+
+            this.queuedTaskCount.incrementAndGet();
+            this.submitted.add(task);
+        }
+        return task;
+    }
+
+    /**
+     * runs all tasks that are due. this is called automatically for {@link Scheduler#INSTANCE}, and must only be
+     * called by the owner of a scheduler from {@link Scheduler#create}.
+     *
+     * @param server the server to run tasks with
+     */
+    public void tick(MinecraftServer server) {
+        if (this.closed) {
+            return;
+        }
+
+        long start = System.nanoTime();
+
         int time = server.getTicks();
         this.currentTick = time;
 
-        this.taskQueue.removeIf(task -> task.tryRun(server, time));
+        // if no tick was skipped since the last, every task that is due now is run on the tick it was due
+        boolean skipped = !this.started || time - this.wheelTick != 1;
+
+        if (!this.started) {
+            this.wheelTick = time - 1;
+            this.started = true;
+        } else if (time - this.wheelTick < 0) {
+            // the tick counter restarts when a new server is started in the same process
+            this.rebase(time);
+        }
+
+        while (this.wheelTick - time < 0) {
+            this.advance();
+        }
+
+        Task task;
+        while ((task = this.submitted.poll()) != null) {
+            // a task submitted off-thread may have read the tick before this one, and cannot be due before it is seen
+            if (task.due - time < 0) {
+                task.due = time;
+            }
+            this.schedule(task);
+        }
+
+        this.runExpired(server, time, skipped);
+
+        this.lastRunNanos = System.nanoTime() - start;
+        this.totalRunNanos += this.lastRunNanos;
     }
 
-    private interface Task {
-        boolean tryRun(MinecraftServer server, int time);
+    /**
+     * cancels all tasks in this scheduler. any task submitted afterwards is cancelled immediately.
+     */
+    @Override
+    public void close() {
+        Task task;
+        synchronized (this.submitted) {
+            this.closed = true;
+            while ((task = this.submitted.poll()) != null) {
+                task.cancelled = true;
+            }
+        }
+
+        for (var level : this.wheel) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                task = level[slot];
+                level[slot] = null;
+                while (task != null) {
+                    var next = task.next;
+                    task.cancelled = true;
+                    task.next = null;
+                    task = next;
+                }
+            }
+        }
+
+        for (var expired : this.expired) {
+            expired.cancelled = true;
+        }
+        this.expired.clear();
+
+        this.queuedTaskCount.set(0);
     }
 
-    private record OneshotTask(Consumer<MinecraftServer> action, int time) implements Task {
-        @Override
-        public boolean tryRun(MinecraftServer server, int time) {
-            if (time >= this.time) {
-                this.action.accept(server);
-                return true;
+    private void rebase(int time) {
+        int offset = time - 1 - this.wheelTick;
+
+        var tasks = new ArrayList<Task>();
+        for (var level : this.wheel) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                var task = level[slot];
+                level[slot] = null;
+                while (task != null) {
+                    var next = task.next;
+                    task.next = null;
+                    task.time += offset;
+                    task.due += offset;
+                    tasks.add(task);
+                    task = next;
+                }
             }
-            return false;
+        }
+
+        this.wheelTick = time - 1;
+        for (var task : tasks) {
+            this.schedule(task);
         }
     }
 
-    private static class DoWhileTask implements Task {
-        private final Consumer<MinecraftServer> task;
+    private void advance() {
+        int tick = ++this.wheelTick;
+
+        // cascade coarser levels down first, so that tasks moved into the current slot of a finer level are cascaded too
+        for (int level = WHEEL_LEVELS - 1; level > 0; level--) {
+            int shift = level * WHEEL_BITS;
+            if ((tick & ((1 << shift) - 1)) == 0) {
+                int slot = (tick >>> shift) & WHEEL_MASK;
+                var tasks = this.wheel[level][slot];
+                this.wheel[level][slot] = null;
+                this.scheduleAll(tasks);
+            }
+        }
+
+        int slot = tick & WHEEL_MASK;
+        var tasks = this.wheel[0][slot];
+        this.wheel[0][slot] = null;
+        while (tasks != null) {
+            var next = tasks.next;
+            tasks.next = null;
+            this.expired.add(tasks);
+            tasks = next;
+        }
+    }
+
+    private void scheduleAll(Task tasks) {
+        while (tasks != null) {
+            var next = tasks.next;
+            tasks.next = null;
+            this.schedule(tasks);
+            tasks = next;
+        }
+    }
+
+    private void schedule(Task task) {
+        if (task.cancelled) {
+            this.queuedTaskCount.decrementAndGet();
+            return;
+        }
+
+        int delta = task.time - this.wheelTick;
+        if (delta <= 0) {
+            this.expired.add(task);
+            return;
+        }
+
+        int level = 0;
+        while (level < WHEEL_LEVELS - 1 && delta >= 1 << ((level + 1) * WHEEL_BITS)) {
+            level++;
+        }
+
+        int slot = (task.time >>> (level * WHEEL_BITS)) & WHEEL_MASK;
+        task.next = this.wheel[level][slot];
+        this.wheel[level][slot] = task;
+    }
+
+    private void runExpired(MinecraftServer server, int time, boolean skipped) {
+        var expired = this.expired;
+        int maxLateness = 0;
+
+        for (int i = 0; i < expired.size(); i++) {
+            var task = expired.get(i);
+            if (task.cancelled) {
+                this.queuedTaskCount.decrementAndGet();
+                continue;
+            }
+
+            int lateness = Math.max(time - task.due, 0);
+            assert skipped || lateness == 0 : "Task due on tick " + task.due + " ran late on tick " + time;
+            maxLateness = Math.max(maxLateness, lateness);
+            this.totalLatenessTicks += lateness;
+            this.tasksRun++;
+
+            try {
+                task.action.accept(server);
+            } catch (Throwable throwable) {
+                Plasmid.LOGGER.error("An unexpected exception occurred while running a scheduled task", throwable);
+            }
+
+            if (this.closed) {
+                // the task closed this scheduler, which has already cancelled everything else
+                return;
+            }
+
+            if (task.interval > 0 && !task.cancelled && task.shouldRepeat(time)) {
+                task.time = time + task.interval;
+                task.due = task.time;
+                this.schedule(task);
+            } else {
+                task.cancelled = true;
+                this.queuedTaskCount.decrementAndGet();
+            }
+        }
+
+        expired.clear();
+        this.lastMaxLatenessTicks = maxLateness;
+    }
+
+    /**
+     * A handle to a task submitted to the {@link Scheduler}.
+     */
+    public interface Handle {
+        /**
+         * Cancels this task, preventing any future executions of it.
+         */
+        void cancel();
+
+        /**
+         * @return whether this task has been cancelled, or will not run again because it has completed
+         */
+        boolean isCancelled();
+    }
+
+    private static final class Task implements Handle {
+        private final Consumer<MinecraftServer> action;
         private final IntPredicate condition;
         private final int interval;
 
-        private int nextTime;
+        private int time;
+        private int due;
+        private volatile boolean cancelled;
+
+        private Task next;
 
-        private DoWhileTask(Consumer<MinecraftServer> task, IntPredicate condition, int beginTime, int interval) {
-            this.task = task;
+        private Task(Consumer<MinecraftServer> action, IntPredicate condition, int submitTick, int delay, int interval) {
+            this.action = action;
             this.condition = condition;
-            this.nextTime = beginTime;
+            this.time = submitTick + Math.max(delay, 0);
+            // a task submitted with no delay runs on the next tick of the scheduler, which is the tick it is due on
+            this.due = submitTick + Math.max(delay, 1);
             this.interval = interval;
         }
 
-        @Override
-        public boolean tryRun(MinecraftServer server, int time) {
-            if (time >= this.nextTime) {
-                this.task.accept(server);
-                this.nextTime = time + this.interval;
-
-                return !this.shouldRepeat(time);
-            }
+        private boolean shouldRepeat(int time) {
+            IntPredicate condition = this.condition;
+            return condition == null || condition.test(time);
+        }
 
-            return false;
+        @Override
+        public void cancel() {
+            this.cancelled = true;
         }
 
-        private boolean shouldRepeat(int predicate) {
-            IntPredicate condition = this.condition;
-            return condition == null || condition.test(predicate);
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled;
         }
     }
 }